@@ -0,0 +1,109 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.model.Votes;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.repository.VotesRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Rows/second for bulk inserts of Voter and Votes through JPA, with JDBC batching
+ * off (batch_size=1, which is what IDENTITY ids forced) and on (batch_size=50).
+ *
+ * Runs against the module's in-memory H2 database by default. Pass a JDBC url,
+ * user and password to measure MySQL instead (the schema is dropped and recreated):
+ *
+ *   mvn -q compile exec:exec@bulk-insert
+ *   mvn -q compile exec:exec@bulk-insert -Dbulk.args="jdbc:mysql://localhost:3306/voting_bench?rewriteBatchedStatements=true root secret"
+ */
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        for (int batchSize : new int[] { 1, 50 }) {
+            // Passed as command-line arguments so they win over application.properties
+            List<String> properties = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                    "--logging.level.root=WARN"));
+            if (args.length >= 1) {
+                properties.add("--spring.datasource.url=" + args[0]);
+                properties.add("--spring.datasource.username=" + (args.length >= 2 ? args[1] : "root"));
+                properties.add("--spring.datasource.password=" + (args.length >= 3 ? args[2] : ""));
+                properties.add("--spring.datasource.driver-class-name=");
+            }
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                    .run(properties.toArray(String[]::new))) {
+                run(context, batchSize);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(ConfigurableApplicationContext context, int batchSize) {
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        VoterRepository voters = context.getBean(VoterRepository.class);
+        VotesRepository votes = context.getBean(VotesRepository.class);
+        ElectionsRepository elections = context.getBean(ElectionsRepository.class);
+        CandidatesRepository candidates = context.getBean(CandidatesRepository.class);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            String tag = batchSize + "-" + round;
+
+            long start = System.nanoTime();
+            List<Voter> saved = tx.execute(status -> {
+                List<Voter> batch = new ArrayList<>(ROWS);
+                for (int i = 0; i < ROWS; i++) {
+                    batch.add(new Voter("Bench", "Voter" + i, "bench" + tag + "-" + i + "@example.com",
+                            "B" + tag + "-" + i, null, "not-a-real-hash"));
+                }
+                return voters.saveAll(batch);
+            });
+            double voterRate = ROWS / ((System.nanoTime() - start) / 1e9);
+
+            Elections election = elections.save(new Elections("Bench " + tag, "", Instant.now(), Instant.now(),
+                    "active"));
+            Candidates candidate = new Candidates();
+            candidate.setVoter(saved.get(0));
+            candidate.setElections(election);
+            candidate.setPost("Guild President");
+            Candidates standing = candidates.save(candidate);
+
+            start = System.nanoTime();
+            tx.executeWithoutResult(status -> {
+                List<Votes> batch = new ArrayList<>(ROWS);
+                for (Voter voter : saved) {
+                    Votes vote = new Votes();
+                    vote.setVoter(voter);
+                    vote.setCandidate(standing);
+                    vote.setElection(election);
+                    vote.setPost("Guild President");
+                    vote.setTimestamp(LocalDateTime.now());
+                    batch.add(vote);
+                }
+                votes.saveAll(batch);
+            });
+            double voteRate = ROWS / ((System.nanoTime() - start) / 1e9);
+
+            System.out.printf("batch_size=%-3d round %d: Voter %,10.0f rows/s   Votes %,10.0f rows/s%n",
+                    batchSize, round, voterRate, voteRate);
+        }
+    }
+}
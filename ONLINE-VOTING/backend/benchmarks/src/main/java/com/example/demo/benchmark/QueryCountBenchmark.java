@@ -0,0 +1,155 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.service.CandidatesService;
+import com.example.demo.service.ElectionsService;
+import com.example.demo.service.VoteBatchWriter;
+import com.example.demo.service.VoteJournal;
+import com.example.demo.service.VoterService;
+import com.example.demo.service.VotesService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/*
+ * SQL statements per operation with the second-level cache off and on, counted
+ * with Hibernate statistics over the same seeded election.
+ *
+ * Each operation runs once to warm up and then ROUNDS times; the figure is the
+ * number of JDBC statements prepared per measured call.
+ *
+ *   mvn -q compile exec:exec@query-count
+ */
+public class QueryCountBenchmark {
+
+    private static final int POSTS = 4;
+    private static final int CANDIDATES_PER_POST = 5;
+    private static final int VOTERS = 2_000;
+    private static final int ROUNDS = 200;
+
+    private final Map<String, double[]> statementsPerCall = new LinkedHashMap<>();
+
+    public static void main(String[] args) {
+        QueryCountBenchmark benchmark = new QueryCountBenchmark();
+        benchmark.run(false);
+        benchmark.run(true);
+        benchmark.report();
+        System.exit(0);
+    }
+
+    private void run(boolean cached) {
+        String[] properties = {
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cached,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cached,
+                "--spring.jpa.properties.hibernate.generate_statistics=true" };
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .run(properties)) {
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+                    .getStatistics();
+            VotesService votesService = context.getBean(VotesService.class);
+            VoterService voterService = context.getBean(VoterService.class);
+            CandidatesService candidatesService = context.getBean(CandidatesService.class);
+            ElectionsService electionsService = context.getBean(ElectionsService.class);
+
+            Elections election = context.getBean(ElectionsRepository.class).save(new Elections("Guild Elections",
+                    "Query count", Instant.now(), Instant.now().plusSeconds(86_400), "active"));
+            Long electionId = election.getId();
+            List<Voter> newVoters = new ArrayList<>(VOTERS);
+            for (int i = 0; i < VOTERS; i++) {
+                newVoters.add(new Voter("Voter", "Number" + i, "voter" + i + "@example.com", "U" + i, null,
+                        "not-a-real-hash"));
+            }
+            List<Voter> voters = context.getBean(VoterRepository.class).saveAll(newVoters);
+
+            CandidatesRepository candidatesRepository = context.getBean(CandidatesRepository.class);
+            List<Candidates> candidates = new ArrayList<>();
+            for (int post = 0; post < POSTS; post++) {
+                for (int n = 0; n < CANDIDATES_PER_POST; n++) {
+                    Candidates candidate = new Candidates();
+                    candidate.setVoter(voters.get(post * CANDIDATES_PER_POST + n));
+                    candidate.setElections(election);
+                    candidate.setPost("Post " + post);
+                    candidate.setApproved(true);
+                    candidates.add(candidatesRepository.save(candidate));
+                }
+            }
+
+            // The first half of the voters have voted for every post
+            List<VoteJournal.Entry> votes = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (int v = 0; v < VOTERS / 2; v++) {
+                for (int post = 0; post < POSTS; post++) {
+                    Candidates candidate = candidates.get(post * CANDIDATES_PER_POST + v % CANDIDATES_PER_POST);
+                    votes.add(new VoteJournal.Entry(0, voters.get(v).getId(), candidate.getCandidateId(),
+                            electionId, candidate.getPost(), now));
+                }
+            }
+            context.getBean(VoteBatchWriter.class).insert(votes);
+
+            int column = cached ? 1 : 0;
+            // Votes from the second half of the voters, one post each
+            measure(statistics, column, "cast vote", i -> votesService.castVote(new CastVoteCommand(
+                    voters.get(VOTERS / 2 + i).getId(), candidates.get(i % candidates.size()).getCandidateId())));
+            // Every call a different voter, then the same few voters retrying
+            measure(statistics, column, "voter login", i -> voterService.getByCredentials("Voter", "Number" + i,
+                    "voter" + i + "@example.com", "U" + i));
+            measure(statistics, column, "repeated voter login", i -> voterService.getByCredentials("Voter",
+                    "Number" + i % 10, "voter" + i % 10 + "@example.com", "U" + i % 10));
+            measure(statistics, column, "election by id", i -> electionsService.getElectionById(electionId));
+            measure(statistics, column, "candidate by id", i -> candidatesService.getCandidateById(
+                    candidates.get(i % candidates.size()).getCandidateId()));
+            measure(statistics, column, "candidates of election",
+                    i -> candidatesService.getCandidatesByElection(electionId));
+            // Flips approval each call, so every call writes
+            measure(statistics, column, "approve candidate", i -> {
+                Candidates candidate = candidates.get(i % candidates.size());
+                candidate.setApproved(!Boolean.TRUE.equals(candidate.getApproved()));
+                candidatesService.updateCandidates(candidate.getCandidateId(), candidate);
+            });
+            measure(statistics, column, "votes of election", i -> votesService.getVotesByElection(electionId));
+
+            if (cached) {
+                System.out.printf("Second-level cache: %d hits, %d misses, %d puts; query cache: %d hits, %d misses%n",
+                        statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                        statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+                        statistics.getQueryCacheMissCount());
+            }
+        }
+    }
+
+    // Call index 0 warms up; calls 1..ROUNDS are counted
+    private void measure(Statistics statistics, int column, String name, IntConsumer operation) {
+        operation.accept(0);
+        long before = statistics.getPrepareStatementCount();
+        for (int i = 1; i <= ROUNDS; i++) {
+            operation.accept(i);
+        }
+        double perCall = (double) (statistics.getPrepareStatementCount() - before) / ROUNDS;
+        statementsPerCall.computeIfAbsent(name, n -> new double[2])[column] = perCall;
+    }
+
+    private void report() {
+        System.out.println();
+        System.out.printf("SQL statements per call (%d voters, %d candidates, %d votes already cast)%n", VOTERS,
+                POSTS * CANDIDATES_PER_POST, VOTERS / 2 * POSTS);
+        System.out.printf("%-24s %12s %12s%n", "operation", "no cache", "L2 cache");
+        statementsPerCall.forEach((name, counts) -> System.out.printf("%-24s %12.2f %12.2f%n", name, counts[0],
+                counts[1]));
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.service.BallotReadModel;
+import com.example.demo.service.CandidatesService;
+import com.example.demo.service.TallyEngine;
+import com.example.demo.service.VoteBatchWriter;
+import com.example.demo.service.VoteDedupIndex;
+import com.example.demo.service.VoteJournal;
+import com.example.demo.service.VoterService;
+import com.example.demo.service.VotesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Throughput of the request paths a busy election leans on, measured through the
+ * real Spring services against H2 in MySQL mode.
+ *
+ * Each fork boots the application once and seeds one election with POSTS posts
+ * of CANDIDATES_PER_POST candidates each, and VOTERS voters. The first half of
+ * the voters have already voted for every post, so counting and dedup work on a
+ * realistically sized table; castVote uses the second half and the votes it
+ * casts are deleted again before every iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VotingBenchmarks {
+
+    static final int POSTS = 8;
+    static final int CANDIDATES_PER_POST = 5;
+    static final int VOTERS = 20_000;
+
+    @State(Scope.Benchmark)
+    public static class Election {
+
+        ConfigurableApplicationContext context;
+        VotesService votesService;
+        CandidatesService candidatesService;
+        BallotReadModel ballotReadModel;
+        VoterService voterService;
+        ObjectMapper objectMapper;
+
+        Long electionId;
+        List<Voter> voters;
+        // candidateIds[post][n]
+        long[][] candidateIds;
+        List<Candidates> candidates;
+        List<Elections> elections;
+
+        // Next (voter, post) slot for castVote, reset every iteration
+        final AtomicInteger nextBallot = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(DemoApplication.class).run();
+            votesService = context.getBean(VotesService.class);
+            candidatesService = context.getBean(CandidatesService.class);
+            ballotReadModel = context.getBean(BallotReadModel.class);
+            voterService = context.getBean(VoterService.class);
+            objectMapper = context.getBean(ObjectMapper.class);
+
+            Elections election = context.getBean(ElectionsRepository.class).save(
+                    new Elections("Guild Elections", "Benchmark election", Instant.now(),
+                            Instant.now().plusSeconds(86_400), "active"));
+            electionId = election.getId();
+
+            List<Voter> newVoters = new ArrayList<>(VOTERS);
+            for (int i = 0; i < VOTERS; i++) {
+                newVoters.add(new Voter("Voter", "Number" + i, "voter" + i + "@example.com", "U" + i, null,
+                        "not-a-real-hash"));
+            }
+            voters = context.getBean(VoterRepository.class).saveAll(newVoters);
+
+            CandidatesRepository candidatesRepository = context.getBean(CandidatesRepository.class);
+            candidateIds = new long[POSTS][CANDIDATES_PER_POST];
+            for (int post = 0; post < POSTS; post++) {
+                for (int n = 0; n < CANDIDATES_PER_POST; n++) {
+                    Candidates candidate = new Candidates();
+                    candidate.setVoter(voters.get(post * CANDIDATES_PER_POST + n));
+                    candidate.setElections(election);
+                    candidate.setPost("Post " + post);
+                    candidate.setBio("Candidate " + n + " for post " + post);
+                    candidate.setApproved(true);
+                    candidateIds[post][n] = candidatesRepository.save(candidate).getCandidateId();
+                }
+            }
+
+            // Votes from the first half of the voters, spread over the candidates
+            List<VoteJournal.Entry> votes = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (int v = 0; v < VOTERS / 2; v++) {
+                for (int post = 0; post < POSTS; post++) {
+                    votes.add(new VoteJournal.Entry(0, voters.get(v).getId(),
+                            candidateIds[post][v % CANDIDATES_PER_POST], electionId, "Post " + post, now));
+                }
+            }
+            context.getBean(VoteBatchWriter.class).insert(votes);
+
+            candidates = candidatesService.getCandidatesByElection(electionId);
+            elections = context.getBean(ElectionsRepository.class).findAll();
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCastVotes() {
+            // Drop the votes castVote added, and the in-memory state that counted them
+            new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(
+                    status -> context.getBean(JdbcTemplate.class).update("DELETE FROM votes WHERE voter_id >= ?",
+                            voters.get(VOTERS / 2).getId()));
+            context.getBean(VoteDedupIndex.class).evict(electionId);
+            context.getBean(TallyEngine.class).evict(electionId);
+            nextBallot.set(0);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    // A new vote: candidate lookup, dedup index, insert, tally update
+    @Benchmark
+    public Object castVote(Election state) {
+        int slot = state.nextBallot.getAndIncrement();
+        int voter = VOTERS / 2 + (slot / POSTS) % (VOTERS / 2);
+        int post = slot % POSTS;
+        long candidateId = state.candidateIds[post][slot % CANDIDATES_PER_POST];
+        try {
+            return state.votesService.castVote(new CastVoteCommand(state.voters.get(voter).getId(), candidateId));
+        } catch (RuntimeException e) {
+            // Only reached if an iteration casts more than VOTERS / 2 * POSTS votes
+            return e;
+        }
+    }
+
+    // A second vote for a post the voter already voted for; rejected by the dedup index
+    @Benchmark
+    public Object castDuplicateVote(Election state) {
+        int voter = ThreadLocalRandom.current().nextInt(VOTERS / 2);
+        int post = ThreadLocalRandom.current().nextInt(POSTS);
+        try {
+            return state.votesService.castVote(
+                    new CastVoteCommand(state.voters.get(voter).getId(), state.candidateIds[post][0]));
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public List<List<Object>> countVotesByElection(Election state) {
+        return state.votesService.countVotesByElection(state.electionId);
+    }
+
+    // What the ballot page loads before a voter can choose
+    @Benchmark
+    public byte[] candidatesForBallot(Election state) {
+        return state.ballotReadModel.get(state.electionId).candidatesJson();
+    }
+
+    // The full candidate entities, as the admin pages load them
+    @Benchmark
+    public List<Candidates> candidateDetails(Election state) {
+        return state.candidatesService.getCandidatesByElection(state.electionId);
+    }
+
+    @Benchmark
+    public Optional<Voter> voterLogin(Election state) {
+        int i = ThreadLocalRandom.current().nextInt(VOTERS);
+        return state.voterService.getByCredentials("Voter", "Number" + i, "voter" + i + "@example.com", "U" + i);
+    }
+
+    @Benchmark
+    public byte[] serializeCandidates(Election state) throws Exception {
+        return state.objectMapper.writeValueAsBytes(state.candidates);
+    }
+
+    @Benchmark
+    public byte[] serializeElections(Election state) throws Exception {
+        return state.objectMapper.writeValueAsBytes(state.elections);
+    }
+}
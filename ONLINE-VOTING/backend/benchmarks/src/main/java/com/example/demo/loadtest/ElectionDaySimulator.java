@@ -0,0 +1,256 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Election-day rehearsal: starts the application on a random port with the
+ * embedded H2 database, seeds an election, then drives a mix of voter logins,
+ * ballot fetches, vote casts and result polls at a fixed Poisson arrival rate.
+ *
+ * Requests are sent on schedule whether or not earlier ones have finished (open
+ * loop), and each latency is measured from when the request was due, so a server
+ * that falls behind shows up in the percentiles instead of slowing the test down.
+ * The per-endpoint report (throughput, p50/p90/p99/p99.9, errors, status codes)
+ * is printed and written to the report file.
+ *
+ *   mvn -q compile exec:exec@load-test -Dload.args="--voters=20000 --rate=500 --duration=120"
+ *
+ * Options (defaults in brackets): --voters [5000] --posts [6]
+ * --candidates-per-post [4] --rate requests/s [200] --duration seconds [60]
+ * --mix [login:20,ballot:25,vote:35,results:20] --max-in-flight [2000]
+ * --report [target/load-report.txt] --seed [42]
+ */
+public class ElectionDaySimulator {
+
+    private static final List<String> OPERATIONS = List.of("login", "ballot", "vote", "results");
+
+    private final Map<String, String> options;
+    private final int voters;
+    private final int posts;
+    private final int candidatesPerPost;
+    private final double rate;
+    private final int durationSeconds;
+    private final Semaphore inFlight;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final List<String> mix = new ArrayList<>();
+
+    private String baseUrl;
+    private long electionId;
+    private List<Voter> seededVoters;
+    // candidateIds[post][n]
+    private long[][] candidateIds;
+
+    // Next (voter, post) to vote for; once every voter has voted for every post the
+    // simulator keeps sending votes, which the server should reject as duplicates
+    private final AtomicInteger nextVote = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        new ElectionDaySimulator(parse(args)).run();
+        System.exit(0);
+    }
+
+    ElectionDaySimulator(Map<String, String> options) {
+        this.options = options;
+        this.voters = Integer.parseInt(options.getOrDefault("voters", "5000"));
+        this.posts = Integer.parseInt(options.getOrDefault("posts", "6"));
+        this.candidatesPerPost = Integer.parseInt(options.getOrDefault("candidates-per-post", "4"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        this.inFlight = new Semaphore(Integer.parseInt(options.getOrDefault("max-in-flight", "2000")));
+
+        // "login:20,ballot:25" -> 20 "login" slots and 25 "ballot" slots to draw from
+        for (String part : options.getOrDefault("mix", "login:20,ballot:25,vote:35,results:20").split(",")) {
+            String[] weighted = part.split(":");
+            if (!OPERATIONS.contains(weighted[0])) {
+                throw new IllegalArgumentException("Unknown operation in --mix: " + weighted[0]);
+            }
+            recorders.put(weighted[0], new LatencyRecorder(weighted[0]));
+            for (int i = 0; i < Integer.parseInt(weighted[1]); i++) {
+                mix.add(weighted[0]);
+            }
+        }
+    }
+
+    void run() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class).run()) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            seed(context);
+
+            System.out.printf("Driving %.0f requests/s for %ds against %s%n", rate, durationSeconds, baseUrl);
+            Random random = new Random(Long.parseLong(options.getOrDefault("seed", "42")));
+            long start = System.nanoTime();
+            long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+            long due = start;
+            while (due < end) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                send(mix.get(random.nextInt(mix.size())), due);
+                // Exponential gaps give Poisson arrivals at the requested rate
+                due += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+            }
+
+            // Let requests still in flight finish before reporting
+            int permits = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+            inFlight.tryAcquire(permits, 60, TimeUnit.SECONDS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            report(seconds);
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        Elections election = context.getBean(ElectionsRepository.class).save(new Elections("Guild Elections",
+                "Load test", Instant.now(), Instant.now().plusSeconds(86_400), "active"));
+        electionId = election.getId();
+
+        List<Voter> newVoters = new ArrayList<>(voters);
+        for (int i = 0; i < voters; i++) {
+            newVoters.add(new Voter("Voter", "Number" + i, "voter" + i + "@example.com", "U" + i, null,
+                    "not-a-real-hash"));
+        }
+        seededVoters = context.getBean(VoterRepository.class).saveAll(newVoters);
+
+        CandidatesRepository candidatesRepository = context.getBean(CandidatesRepository.class);
+        candidateIds = new long[posts][candidatesPerPost];
+        for (int post = 0; post < posts; post++) {
+            for (int n = 0; n < candidatesPerPost; n++) {
+                Candidates candidate = new Candidates();
+                candidate.setVoter(seededVoters.get((post * candidatesPerPost + n) % voters));
+                candidate.setElections(election);
+                candidate.setPost("Post " + post);
+                candidate.setApproved(true);
+                candidateIds[post][n] = candidatesRepository.save(candidate).getCandidateId();
+            }
+        }
+        System.out.println("Seeded election " + electionId + " with " + voters + " voters and "
+                + posts * candidatesPerPost + " candidates");
+    }
+
+    private void send(String operation, long dueNanos) {
+        LatencyRecorder recorder = recorders.get(operation);
+        if (!inFlight.tryAcquire()) {
+            recorder.drop();
+            return;
+        }
+        http.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - dueNanos;
+                    if (failure != null) {
+                        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                        recorder.record(latency, cause.getClass().getSimpleName(), true);
+                    } else {
+                        int status = response.statusCode();
+                        recorder.record(latency, String.valueOf(status), status >= 400);
+                    }
+                    inFlight.release();
+                });
+    }
+
+    private HttpRequest request(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case "login": {
+                int i = random.nextInt(voters);
+                return post("/api/v1/voters/login", "{\"firstName\":\"Voter\",\"lastName\":\"Number" + i
+                        + "\",\"email\":\"voter" + i + "@example.com\",\"universityId\":\"U" + i + "\"}");
+            }
+            case "ballot":
+                return get("/api/v1/candidates/election/" + electionId);
+            case "vote": {
+                int slot = nextVote.getAndIncrement();
+                int voter = (slot / posts) % voters;
+                int post = slot % posts;
+                long candidateId = candidateIds[post][random.nextInt(candidatesPerPost)];
+                return post("/api/v1/votes", "{\"voterId\":" + seededVoters.get(voter).getId()
+                        + ",\"candidateId\":" + candidateId + "}");
+            }
+            case "results":
+                return get("/api/v1/votes/election/" + electionId + "/count");
+            default:
+                throw new IllegalStateException(operation);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private void report(double seconds) throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append("Election-day load test, ").append(Instant.now()).append('\n');
+        out.append(String.format("voters=%d posts=%d candidates/post=%d target rate=%.0f/s duration=%.1fs%n%n",
+                voters, posts, candidatesPerPost, rate, seconds));
+        out.append(String.format("%-8s %9s %9s %8s %8s %9s %9s %9s %9s %9s  %s%n", "endpoint", "requests",
+                "req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "outcomes"));
+        long total = 0;
+        long errors = 0;
+        for (LatencyRecorder recorder : recorders.values()) {
+            LatencyRecorder.Summary s = recorder.summarize(seconds);
+            total += s.requests();
+            errors += s.errors();
+            out.append(String.format("%-8s %9d %9.1f %7.2f%% %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", s.name(),
+                    s.requests(), s.throughput(), s.errorRate(), s.dropped(), s.p50(), s.p90(), s.p99(), s.p999(),
+                    s.max(), s.outcomes()));
+        }
+        out.append(String.format("%ntotal    %9d %9.1f %7.2f%%%n", total, total / seconds,
+                total == 0 ? 0 : 100.0 * errors / total));
+
+        Path file = Paths.get(options.getOrDefault("report", "target/load-report.txt"));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, out);
+        System.out.println();
+        System.out.print(out);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
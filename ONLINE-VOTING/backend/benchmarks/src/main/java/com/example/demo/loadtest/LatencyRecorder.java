@@ -0,0 +1,79 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Latencies and outcomes for one endpoint. Every sample is kept (a run of a few
+ * minutes is at most a few million longs), so percentiles are exact rather than
+ * bucketed.
+ */
+class LatencyRecorder {
+
+    private final String name;
+    private long[] samples = new long[1024];
+    private int count;
+    private final ConcurrentHashMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    // outcome is the HTTP status, or the exception name if there was no response
+    void record(long latencyNanos, String outcome, boolean error) {
+        synchronized (this) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = latencyNanos;
+        }
+        outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    // A request that was due but not sent because too many were already in flight
+    void drop() {
+        dropped.increment();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Summary summarize(double seconds) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        Map<String, Long> byOutcome = new TreeMap<>();
+        outcomes.forEach((outcome, n) -> byOutcome.put(outcome, n.sum()));
+        return new Summary(name, sorted.length, errors.sum(), dropped.sum(), sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6, byOutcome);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // Latencies in milliseconds
+    record Summary(String name, long requests, long errors, long dropped, double throughput, double p50,
+            double p90, double p99, double p999, double max, Map<String, Long> outcomes) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : 100.0 * errors / requests;
+        }
+    }
+}
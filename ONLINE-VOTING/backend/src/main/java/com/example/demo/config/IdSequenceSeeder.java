@@ -0,0 +1,65 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+ * Moves the id_sequences rows past the ids already in use.
+ *
+ * Votes, Voter and Candidates used to get their ids from AUTO_INCREMENT columns.
+ * The pooled table generator starts counting from 1 unless told otherwise, so on a
+ * database with existing rows each sequence is raised above MAX(id) before the app
+ * starts taking requests. On a fresh database this only creates the rows.
+ */
+@Component
+public class IdSequenceSeeder implements SmartInitializingSingleton {
+
+    // Must match allocationSize on the entities' @TableGenerator
+    private static final long ALLOCATION_SIZE = 50;
+
+    private record Sequence(String name, String table, String idColumn) {
+    }
+
+    private static final List<Sequence> SEQUENCES = List.of(
+            new Sequence("votes", "votes", "vote_id"),
+            new Sequence("voter", "voter", "id"),
+            new Sequence("candidates", "candidates", "candidate_id"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> seed());
+    }
+
+    private void seed() {
+        for (Sequence sequence : SEQUENCES) {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + sequence.idColumn() + "), 0) FROM " + sequence.table(), Long.class);
+            // The pooled optimizer hands out (next_val - 50, next_val] for a stored
+            // next_val, so the whole first block has to clear the existing ids
+            long floor = maxId + ALLOCATION_SIZE + 1;
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM id_sequences WHERE sequence_name = ?", Long.class, sequence.name());
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO id_sequences (sequence_name, next_val) VALUES (?, ?)",
+                        sequence.name(), floor);
+            } else if (current.get(0) < floor) {
+                jdbcTemplate.update("UPDATE id_sequences SET next_val = ? WHERE sequence_name = ?",
+                        floor, sequence.name());
+                System.out.println("Raised id sequence '" + sequence.name() + "' to " + floor
+                        + " (highest existing id " + maxId + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Voter;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+ * Fills in voter.login_key for voters saved before the column existed.
+ *
+ * Login looks voters up by that key only, so a voter without one could not log
+ * in. The key is computed with Voter.loginKey rather than LOWER/TRIM in SQL, so
+ * old and new rows are folded the same way. Once every row has a key this is a
+ * single query that finds nothing.
+ */
+@Component
+public class LoginKeyBackfill implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 500;
+
+    private record Row(long id, String loginKey) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> backfill());
+    }
+
+    private void backfill() {
+        List<Row> rows = jdbcTemplate.query(
+                "SELECT id, university_id, email FROM voter WHERE login_key IS NULL"
+                        + " AND university_id IS NOT NULL AND email IS NOT NULL",
+                (rs, rowNum) -> new Row(rs.getLong("id"),
+                        Voter.loginKey(rs.getString("university_id"), rs.getString("email"))));
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE voter SET login_key = ? WHERE id = ?", rows, BATCH_SIZE,
+                (ps, row) -> {
+                    ps.setString(1, row.loginKey());
+                    ps.setLong(2, row.id());
+                });
+        System.out.println("Set login keys for " + rows.size() + " existing voters");
+    }
+}
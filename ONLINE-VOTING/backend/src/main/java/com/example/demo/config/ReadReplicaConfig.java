@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/*
+ * A second connection pool for a read replica, used only when
+ * voting.datasource.replica.jdbc-url is set; otherwise Spring Boot's single
+ * datasource is left as it is.
+ *
+ * The primary pool is built from spring.datasource.* as Boot would build it, the
+ * replica pool from voting.datasource.replica.* (HikariCP property names). The
+ * datasource JPA and JdbcTemplate use routes each transaction between the two
+ * (ReadRouting). Both pools report HikariCP metrics under their pool names, and
+ * voting.datasource.connections counts connections per route.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "voting.datasource.replica", name = "jdbc-url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(ReadRouting.PRIMARY);
+        return primary;
+    }
+
+    @Bean
+    @ConfigurationProperties("voting.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName(ReadRouting.REPLICA);
+        // Same as the primary (spring.datasource.hikari.auto-commit), which Hibernate relies on
+        replica.setAutoCommit(false);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica, meterRegistry));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Hands out primary or replica connections as ReadRouting decides, counting each
+// route. Wrap it in a LazyConnectionDataSourceProxy so the choice is made at the
+// first statement, after the transaction's read-only flag is known.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(ReadRouting.PRIMARY, primary, ReadRouting.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        primaryConnections = connections(meterRegistry, ReadRouting.PRIMARY);
+        replicaConnections = connections(meterRegistry, ReadRouting.REPLICA);
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("voting.datasource.connections")
+                .description("Connections handed out, by the database they came from")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String route = ReadRouting.currentRoute();
+        (ReadRouting.REPLICA.equals(route) ? replicaConnections : primaryConnections).increment();
+        return route;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/*
+ * Decides whether a connection comes from the primary or the read replica (see
+ * ReadReplicaConfig).
+ *
+ * Read-only transactions the application declares itself, @Transactional(readOnly
+ * = true) service methods and read-only TransactionTemplates, go to the replica.
+ * Everything else goes to the primary: writes, code outside a transaction, and the
+ * read-only transactions Spring Data opens around a repository call made outside
+ * one. The caches (elections, ballots, tallies, logins, dedup) are rebuilt by such
+ * calls right after a change commits, and must never see a replica that lags.
+ *
+ * onPrimary forces the primary for reads that must see the latest writes. It has
+ * to be entered before the transaction runs its first statement, which is when
+ * the connection is chosen.
+ */
+public final class ReadRouting {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    // Spring Data's repository transactions are named after SimpleJpaRepository methods
+    private static final String SPRING_DATA = "org.springframework.data.";
+
+    private static final ThreadLocal<int[]> primaryDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReadRouting() {
+    }
+
+    // Where a connection taken on this thread now would come from
+    public static String currentRoute() {
+        if (primaryDepth.get()[0] > 0 || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null && name.startsWith(SPRING_DATA) ? PRIMARY : REPLICA;
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        enterPrimary();
+        try {
+            return work.get();
+        } finally {
+            exitPrimary();
+        }
+    }
+
+    public static void onPrimary(Runnable work) {
+        enterPrimary();
+        try {
+            work.run();
+        } finally {
+            exitPrimary();
+        }
+    }
+
+    static void enterPrimary() {
+        primaryDepth.get()[0]++;
+    }
+
+    static void exitPrimary() {
+        int[] depth = primaryDepth.get();
+        if (--depth[0] <= 0) {
+            primaryDepth.remove();
+        }
+    }
+}
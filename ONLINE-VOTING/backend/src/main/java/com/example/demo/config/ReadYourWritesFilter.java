@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// A request sent with "X-Read-Your-Writes: true" reads from the primary only, e.g.
+// an admin page reloading right after saving, which must not see a lagging replica
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+        if (!"true".equalsIgnoreCase(request.getHeader(HEADER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ReadRouting.enterPrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.exitPrimary();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import com.example.demo.service.WriteConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+/*
+ * Puts WriteConcurrencyLimiter in front of every write under /api/v1 (POST, PUT,
+ * PATCH, DELETE). Logins are left out, since BCrypt has its own bounded pool
+ * (PasswordHasher), and so is CSV import: it runs for seconds, and its times
+ * would drag the latency the limit is based on.
+ */
+@Configuration
+public class WriteLimitConfig implements WebMvcConfigurer {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final String PERMIT = WriteLimitConfig.class.getName() + ".permit";
+
+    @Autowired
+    private WriteConcurrencyLimiter writeConcurrencyLimiter;
+
+    @Value("${voting.writes.limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                    @NonNull Object handler) {
+                if (WRITE_METHODS.contains(request.getMethod())) {
+                    // Throws ServiceOverloadedException (503) when over the limit
+                    request.setAttribute(PERMIT, writeConcurrencyLimiter.acquire());
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                    @NonNull Object handler, Exception ex) {
+                if (request.getAttribute(PERMIT) instanceof WriteConcurrencyLimiter.Permit permit) {
+                    request.removeAttribute(PERMIT);
+                    permit.release(ex != null || response.getStatus() >= 500);
+                }
+            }
+        }).addPathPatterns("/api/v1/**").excludePathPatterns("/api/v1/voters/login", "/api/v1/admins/login",
+                "/api/v1/voters/import");
+    }
+}
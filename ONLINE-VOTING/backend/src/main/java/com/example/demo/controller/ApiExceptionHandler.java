@@ -0,0 +1,26 @@
+package com.example.demo.controller;
+
+import com.example.demo.exception.ElectionNotFoundException;
+import com.example.demo.exception.ServiceOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // A bounded queue or pool is full: tell the client to back off and retry
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(ServiceOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(ElectionNotFoundException.class)
+    public ResponseEntity<String> handleElectionNotFound(ElectionNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+}
@@ -1,19 +1,25 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Candidates;
+import com.example.demo.service.BallotReadModel;
+import com.example.demo.service.CandidateImageStore;
 import com.example.demo.service.CandidatesService;
+import com.example.demo.service.StaticFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.util.StringUtils;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/candidates")
@@ -21,12 +27,16 @@ import java.util.UUID;
 public class CandidateController {
 
     private final CandidatesService candidateService;
+    private final BallotReadModel ballotReadModel;
+    private final CandidateImageStore candidateImageStore;
+    private final StaticFileServer staticFileServer;
 
-    // Directory to store uploaded images
-    private static final String UPLOAD_DIR = "uploads/candidates/";
-
-    public CandidateController(CandidatesService candidateService) {
+    public CandidateController(CandidatesService candidateService, BallotReadModel ballotReadModel,
+            CandidateImageStore candidateImageStore, StaticFileServer staticFileServer) {
         this.candidateService = candidateService;
+        this.ballotReadModel = ballotReadModel;
+        this.candidateImageStore = candidateImageStore;
+        this.staticFileServer = staticFileServer;
     }
 
     @GetMapping
@@ -39,11 +49,46 @@ public class CandidateController {
         return candidateService.getCandidateById(id);
     }
 
+    // The ballot's candidates (id, post, name, bio, image, approved), from the
+    // precomputed ballot; 304 if the client's copy is still current
     @GetMapping("/election/{electionId}")
-    public List<Candidates> getCandidatesByElection(@PathVariable Long electionId) {
+    public ResponseEntity<byte[]> getCandidatesByElection(@PathVariable Long electionId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        BallotReadModel.Ballot ballot = ballotReadModel.get(electionId);
+        return ballotResponse(ballot.etag(), ballot.candidatesJson(), ifNoneMatch);
+    }
+
+    // The same ballot grouped by post
+    @GetMapping("/election/{electionId}/ballot")
+    public ResponseEntity<byte[]> getBallot(@PathVariable Long electionId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        BallotReadModel.Ballot ballot = ballotReadModel.get(electionId);
+        return ballotResponse(ballot.etag(), ballot.viewJson(), ifNoneMatch);
+    }
+
+    // Full candidate records (registration date, voter details) for the admin pages
+    @GetMapping("/election/{electionId}/details")
+    public List<Candidates> getCandidateDetailsByElection(@PathVariable Long electionId) {
         return candidateService.getCandidatesByElection(electionId);
     }
 
+    // A candidate photo; ?width= picks the smallest thumbnail at least that wide
+    @GetMapping("/images/{name}")
+    public ResponseEntity<Resource> getImage(@PathVariable String name,
+            @RequestParam(required = false) Integer width, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<Path> file = candidateImageStore.resolve(name, width);
+        if (file.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Content-addressed, so the file never changes; only the fallback to the original
+        // while thumbnails are being made must not be cached as the answer for that width
+        boolean fallback = width != null && file.get().getFileName().toString().equals(name);
+        CacheControl cacheControl = fallback ? CacheControl.noCache()
+                : CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+        return staticFileServer.serve(file.get(), cacheControl, request, response);
+    }
+
     @PostMapping
     public Candidates addCandidate(@RequestBody Candidates candidate) {
         System.out.println("=== INCOMING CANDIDATE REQUEST ===");
@@ -75,13 +120,13 @@ public class CandidateController {
         System.out.println("=== INCOMING CANDIDATE REQUEST WITH IMAGE ===");
         System.out.println("Candidate data: " + candidate);
 
-        // Handle image upload if provided
+        // Handle image upload if provided; thumbnails are made in the background
         if (imageFile != null && !imageFile.isEmpty()) {
             try {
-                String imageUrl = saveImage(imageFile);
-                candidate.setImageUrl(imageUrl);
-                System.out.println("Image saved at: " + imageUrl);
-            } catch (IOException e) {
+                CandidateImageStore.StoredImage image = candidateImageStore.store(imageFile);
+                candidate.setImageUrl(image.url());
+                System.out.println("Image saved at: " + image.url() + (image.duplicate() ? " (already stored)" : ""));
+            } catch (IOException | IllegalArgumentException e) {
                 System.err.println("Failed to save image: " + e.getMessage());
             }
         }
@@ -106,32 +151,10 @@ public class CandidateController {
         return "Candidate with candidate_id " + id + " deleted successfully!";
     }
 
-    // Helper method to save image file
-    private String saveImage(MultipartFile imageFile) throws IOException {
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate unique filename
-        String originalFilename = StringUtils.cleanPath(imageFile.getOriginalFilename());
-        String fileExtension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-        // Save file to disk
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        // Return relative URL for accessing the image
-        return "/uploads/candidates/" + uniqueFilename;
-    }
-
-    // Helper method to extract file extension
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.lastIndexOf('.') == -1) {
-            return "";
+    private static ResponseEntity<byte[]> ballotResponse(String etag, byte[] json, String ifNoneMatch) {
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
-        return filename.substring(filename.lastIndexOf('.'));
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(json);
     }
 }
\ No newline at end of file
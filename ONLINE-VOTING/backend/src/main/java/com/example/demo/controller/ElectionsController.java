@@ -1,13 +1,26 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.ElectionDeletionStatus;
 import com.example.demo.model.Elections;
+import com.example.demo.service.ElectionCatalog;
 import com.example.demo.service.ElectionsService;
+import com.example.demo.service.ResultsFinalizer;
+import com.example.demo.service.StaticFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/elections")
@@ -16,12 +29,21 @@ public class ElectionsController {
     @Autowired
     private ElectionsService electionsService;
 
+    @Autowired
+    private ElectionCatalog electionCatalog;
+
+    @Autowired
+    private ResultsFinalizer resultsFinalizer;
+
+    @Autowired
+    private StaticFileServer staticFileServer;
+
+    // Served as cached JSON; the ETag changes whenever any election does
     @GetMapping
-    public ResponseEntity<?> getAllElections() {
+    public ResponseEntity<?> getAllElections(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Elections> elections = electionsService.getAllElections();
-            System.out.println("Retrieved elections: " + elections.size());
-            return new ResponseEntity<>(elections, HttpStatus.OK);
+            return cachedJson(electionCatalog.getAll(), ifNoneMatch);
         } catch (Exception e) {
             System.err.println("Error retrieving elections: " + e.getMessage());
             e.printStackTrace();
@@ -30,6 +52,46 @@ public class ElectionsController {
         }
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getElectionById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ElectionCatalog.CachedJson> election = electionCatalog.getById(id);
+        if (election.isEmpty()) {
+            return new ResponseEntity<>("Election not found with ID " + id, HttpStatus.NOT_FOUND);
+        }
+        return cachedJson(election.get(), ifNoneMatch);
+    }
+
+    // Final results of a completed election as JSON (default) or CSV. They never change
+    // once stored, so the file is served with a one-year immutable Cache-Control.
+    @GetMapping("/{id}/results")
+    public ResponseEntity<?> getResults(@PathVariable Long id, @RequestParam(defaultValue = "json") String format,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ResultsFinalizer.Format resultsFormat;
+        try {
+            resultsFormat = ResultsFinalizer.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        Optional<Path> file = resultsFinalizer.artifact(id, resultsFormat);
+        if (file.isEmpty()) {
+            return new ResponseEntity<>("No final results for election " + id + " yet", HttpStatus.NOT_FOUND);
+        }
+        if (resultsFormat == ResultsFinalizer.Format.CSV) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"election-" + id + "-results.csv\"");
+        }
+        return staticFileServer.serve(file.get(), CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable(),
+                request, response);
+    }
+
+    private static ResponseEntity<?> cachedJson(ElectionCatalog.CachedJson cached, String ifNoneMatch) {
+        if (cached.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(cached.etag()).contentType(MediaType.APPLICATION_JSON).body(cached.json());
+    }
+
     @PostMapping
     public ResponseEntity<?> createElection(@RequestBody Elections election) {
         try {
@@ -88,11 +150,18 @@ public class ElectionsController {
         }
     }
 
+    // 202 at once: the election is hidden and its votes and candidates are deleted in
+    // the background. Progress is at the Location (GET /api/v1/elections/{id}/deletion).
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteElection(@PathVariable Long id) {
         try {
-            electionsService.deleteElections(id);
-            return new ResponseEntity<>("Election with ID " + id + " deleted successfully!", HttpStatus.OK);
+            Optional<ElectionDeletionStatus> status = electionsService.deleteElections(id);
+            if (status.isEmpty()) {
+                return new ResponseEntity<>("Election not found with ID " + id, HttpStatus.NOT_FOUND);
+            }
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/elections/" + id + "/deletion"))
+                    .body(status.get());
         } catch (Exception e) {
             System.err.println("Error deleting election with ID " + id + ": " + e.getMessage());
             e.printStackTrace();
@@ -100,4 +169,14 @@ public class ElectionsController {
                     HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<?> getDeletionStatus(@PathVariable Long id) {
+        Optional<ElectionDeletionStatus> status = electionsService.getDeletionStatus(id);
+        if (status.isEmpty()) {
+            return new ResponseEntity<>("No deletion of election " + id + " since the server started",
+                    HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(status.get());
+    }
+}
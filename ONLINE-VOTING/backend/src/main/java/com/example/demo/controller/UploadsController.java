@@ -0,0 +1,47 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.StaticFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+// Files under the uploads directory (candidate photos). Upload names are never
+// reused, so responses may be cached for a year without revalidation.
+@RestController
+public class UploadsController {
+
+    private static final String PREFIX = "/uploads/";
+
+    @Autowired
+    private StaticFileServer staticFileServer;
+
+    @Value("${voting.static.uploads-dir:uploads}")
+    private String uploadsDir;
+
+    @GetMapping(PREFIX + "**")
+    public ResponseEntity<Resource> getUpload(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length() + PREFIX.length());
+        Path root = Paths.get(uploadsDir).toAbsolutePath().normalize();
+        Path file = root.resolve(UriUtils.decode(path, StandardCharsets.UTF_8)).normalize();
+        // Nothing outside the uploads directory, whatever the path says
+        if (!file.startsWith(root) || file.equals(root)) {
+            return ResponseEntity.notFound().build();
+        }
+        return staticFileServer.serve(file, CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable(),
+                request, response);
+    }
+}
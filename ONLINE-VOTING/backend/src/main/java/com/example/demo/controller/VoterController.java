@@ -1,10 +1,16 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.VoterPage;
 import com.example.demo.model.Voter;
+import com.example.demo.service.VoterImporter;
 import com.example.demo.service.VoterService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -14,16 +20,26 @@ import java.util.Optional;
 public class VoterController {
 
     private final VoterService voterService; // Inject the service layer
+    private final VoterImporter voterImporter;
 
     // Constructor injection (preferred over field injection)
-    public VoterController(VoterService voterService) {
+    public VoterController(VoterService voterService, VoterImporter voterImporter) {
         this.voterService = voterService;
+        this.voterImporter = voterImporter;
     }
 
-    // GET /api/v1/voters (Retrieves all voters)
+    // GET /api/v1/voters?after={lastId}&size={n}&includeTotal=true
+    // (One page of voters in id order; pass nextCursor back as 'after' for the next page)
     @GetMapping
-    public List<Voter> getAllVoters() {
-        return voterService.getAllVotersOrdered();
+    public ResponseEntity<?> getVoters(@RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            VoterPage page = voterService.getVoterPage(after, size, includeTotal);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // POST /api/v1/voters/register
@@ -32,6 +48,20 @@ public class VoterController {
         return voterService.registerVoter(voter);
     }
 
+    // POST /api/v1/voters/import (multipart 'file': CSV with a header row naming
+    // firstName, lastName, email, universityId, password; returns per-row errors)
+    @PostMapping("/import")
+    public ResponseEntity<?> importVoters(@RequestParam("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(voterImporter.importCsv(in));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Failed to read voter import: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to read the uploaded file");
+        }
+    }
+
     // POST /api/v1/voters/login
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
@@ -1,11 +1,29 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BallotReceipt;
+import com.example.demo.dto.BallotRequest;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.dto.TallySnapshot;
+import com.example.demo.dto.VoteReceipt;
 import com.example.demo.model.Votes;
+import com.example.demo.exception.DuplicateVoteException;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.service.TallyStreamService;
+import com.example.demo.service.VoteExporter;
 import com.example.demo.service.VotesService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -15,6 +33,15 @@ public class VotesController {
     @Autowired
     private VotesService votesService;
 
+    @Autowired
+    private TallyStreamService tallyStreamService;
+
+    @Autowired
+    private VoteExporter voteExporter;
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
     @GetMapping
     public List<Votes> getAllVotes() {
         return votesService.getAllVotes();
@@ -26,13 +53,88 @@ public class VotesController {
     }
 
     @GetMapping("/election/{electionId}/count")
-    public List<Object[]> countVotesByElection(@PathVariable Long electionId) {
+    public List<List<Object>> countVotesByElection(@PathVariable Long electionId) {
         return votesService.countVotesByElection(electionId);
     }
 
+    // Full live tally grouped by post; the ETag is the tally's epoch and version
+    @GetMapping("/election/{electionId}/tally")
+    public ResponseEntity<TallySnapshot> getTally(@PathVariable Long electionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TallySnapshot snapshot = votesService.getTally(electionId);
+        String etag = "\"" + snapshot.tag() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(snapshot);
+    }
+
+    // Live results over server-sent events: a "snapshot" event, then "delta" events
+    @GetMapping(path = "/election/{electionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTally(@PathVariable Long electionId) {
+        return tallyStreamService.subscribe(electionId);
+    }
+
+    // Compare the live tally with a GROUP BY over the votes table
+    @GetMapping("/election/{electionId}/tally/verify")
+    public Map<String, Object> verifyTally(@PathVariable Long electionId) {
+        return votesService.verifyTally(electionId);
+    }
+
+    // Every vote of an election as CSV (default) or NDJSON, streamed straight to the response
+    @GetMapping("/election/{electionId}/export")
+    public void exportVotes(@PathVariable Long electionId, @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        VoteExporter.Format exportFormat;
+        try {
+            exportFormat = VoteExporter.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        if (!electionsRepository.existsById(electionId)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Election not found with ID " + electionId);
+            return;
+        }
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"election-" + electionId + "-votes." + exportFormat.extension() + "\"");
+        voteExporter.export(electionId, exportFormat, response.getOutputStream());
+    }
+
     @PostMapping
-    public Votes castVote(@RequestBody Votes vote) {
-        return votesService.castVote(vote);
+    public ResponseEntity<?> castVote(@RequestBody CastVoteCommand command) {
+        try {
+            VoteReceipt receipt = votesService.castVote(command);
+            // In write-behind mode the vote is journaled but not yet in the votes table
+            HttpStatus status = votesService.isWriteBehind() ? HttpStatus.ACCEPTED : HttpStatus.OK;
+            return new ResponseEntity<>(receipt, status);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>("Vote could not be recorded: unknown voter or candidate",
+                    HttpStatus.BAD_REQUEST);
+        } catch (DuplicateVoteException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        }
+    }
+
+    // Cast every selection on a ballot in one request
+    @PostMapping("/ballot")
+    public ResponseEntity<?> castBallot(@RequestBody BallotRequest ballot) {
+        try {
+            BallotReceipt receipt = votesService.castBallot(ballot);
+            HttpStatus status = votesService.isWriteBehind() ? HttpStatus.ACCEPTED : HttpStatus.OK;
+            return new ResponseEntity<>(receipt, status);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>("Ballot could not be recorded: unknown voter or candidate",
+                    HttpStatus.BAD_REQUEST);
+        } catch (DuplicateVoteException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Returned once a ballot has been recorded ("recorded") or journaled for a
+// write-behind insert ("accepted")
+public record BallotReceipt(Long voterId, Long electionId, String status, LocalDateTime timestamp,
+        List<Selection> votes) {
+
+    public record Selection(String post, Long candidateId) {
+    }
+}
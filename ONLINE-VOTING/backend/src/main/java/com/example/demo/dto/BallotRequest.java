@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// A voter's selections for one election: at most one candidate per post
+public record BallotRequest(Long voterId, Long electionId, List<Long> candidateIds) {
+}
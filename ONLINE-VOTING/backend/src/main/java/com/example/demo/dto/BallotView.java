@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// What a voter's ballot shows for one election, grouped by post
+public record BallotView(Long electionId, long version, List<BallotPost> posts) {
+
+    public record BallotPost(String post, List<BallotCandidate> candidates) {
+    }
+
+    // voter carries only the display name, in the shape the candidate pages already read
+    public record BallotCandidate(Long candidateId, String post, TallySnapshot.VoterName voter, String bio,
+            String imageUrl, Boolean approved) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+// What a voter sends to cast one vote. The election and post are looked up from the
+// candidate, never taken from the client.
+public record CastVoteCommand(Long voterId, Long candidateId) {
+
+    // Accepts the flat form {voterId, candidateId} as well as the older nested
+    // {voter: {id}, candidate: {candidateId}} body; any other fields are ignored
+    @JsonCreator
+    public static CastVoteCommand fromJson(@JsonProperty("voterId") Long voterId,
+            @JsonProperty("candidateId") Long candidateId,
+            @JsonProperty("voter") Map<String, Object> voter,
+            @JsonProperty("candidate") Map<String, Object> candidate) {
+        if (voterId == null && voter != null) {
+            voterId = toLong(voter.get("id"));
+        }
+        if (candidateId == null && candidate != null) {
+            candidateId = toLong(candidate.get("candidateId"));
+        }
+        return new CastVoteCommand(voterId, candidateId);
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return Long.valueOf(text.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid ID: " + text);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.dto;
+
+import java.time.Instant;
+
+// Progress of a background election deletion (see ElectionDeleter). state is QUEUED,
+// RUNNING, DONE or FAILED; the counts cover this run only, so a deletion resumed
+// after a restart counts from zero.
+public record ElectionDeletionStatus(Long electionId, String state, long votesDeleted, long candidatesDeleted,
+        Instant requestedAt, Instant finishedAt, String error) {
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Results of a completed election, computed once when it closed (see ResultsFinalizer).
+// turnout is ballotsCast / registeredVoters; winners holds more than one candidate
+// id when a post is tied, and none when nobody voted for the post.
+public record FinalResults(Long electionId, String electionName, Instant startTime, Instant endTime,
+        Instant finalizedAt, long totalVotes, long ballotsCast, long registeredVoters, double turnout,
+        List<PostResult> posts) {
+
+    public record PostResult(String post, long totalVotes, List<Long> winners,
+            List<TallySnapshot.CandidateTally> candidates) {
+    }
+
+    // Same [candidate, count] rows as TallySnapshot.toCountRows
+    public List<List<Object>> toCountRows() {
+        return TallySnapshot.countRows(posts.stream().flatMap(post -> post.candidates().stream()).toList());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// Candidates whose count changed between two tally versions. Counts are absolute,
+// so a client that already has a newer snapshot can apply the delta safely.
+public record TallyDelta(Long electionId, long fromVersion, long version, long totalVotes,
+        List<TallySnapshot.CandidateTally> changed, List<Long> removed) {
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable vote counts for one election at a given tally version. Versions start
+// again each time the election is loaded (after a restart or an evict), so the
+// epoch names the load they belong to.
+public record TallySnapshot(Long electionId, String epoch, long version, Instant generatedAt, long totalVotes,
+        List<PostTally> posts) {
+
+    // Epoch and version together, for ETags and event ids
+    public String tag() {
+        return epoch + "-" + version;
+    }
+
+    public record PostTally(String post, long totalVotes, List<CandidateTally> candidates) {
+    }
+
+    public record CandidateTally(Long candidateId, String post, VoterName voter, String imageUrl, long votes) {
+    }
+
+    // Only the fields the results page shows
+    public record VoterName(String firstName, String lastName) {
+    }
+
+    // Rows in the [candidate, count] shape of the old GROUP BY query, for candidates
+    // that have at least one vote
+    public List<List<Object>> toCountRows() {
+        return countRows(posts.stream().flatMap(post -> post.candidates().stream()).toList());
+    }
+
+    // Shared with FinalResults.toCountRows
+    static List<List<Object>> countRows(List<CandidateTally> candidates) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (CandidateTally candidate : candidates) {
+            if (candidate.votes() > 0) {
+                rows.add(List.of(candidate, candidate.votes()));
+            }
+        }
+        return List.copyOf(rows);
+    }
+}
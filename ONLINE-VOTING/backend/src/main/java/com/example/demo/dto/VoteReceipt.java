@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Returned for a cast vote instead of the Votes entity: "recorded" once the row is
+// in the votes table, "accepted" once it is journaled for a write-behind insert
+public record VoteReceipt(Long voterId, Long candidateId, Long electionId, String post, String status,
+        LocalDateTime timestamp) {
+}
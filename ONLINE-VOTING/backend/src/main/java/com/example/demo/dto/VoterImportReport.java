@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// Outcome of a CSV voter import. Row numbers are line numbers in the file (the
+// header is line 1); errors lists at most voting.voters.import.max-reported-errors.
+public record VoterImportReport(long rows, long imported, long failed, List<RowError> errors,
+        boolean errorsTruncated, long elapsedMillis, double rowsPerSecond) {
+
+    public record RowError(long line, String message) {
+    }
+}
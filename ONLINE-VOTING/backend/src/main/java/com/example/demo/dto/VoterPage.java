@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// One page of the voter list. nextCursor is the id to pass as ?after= for the next
+// page (null on the last page); totalCount is only filled in when asked for.
+public record VoterPage(List<VoterSummary> voters, Long nextCursor, Long totalCount) {
+}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+// A voter as the admin list shows it: everything except the password hash
+public record VoterSummary(Long id, String firstName, String lastName, String email, String universityId,
+        Boolean approved) {
+}
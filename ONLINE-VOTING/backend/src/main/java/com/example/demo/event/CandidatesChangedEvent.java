@@ -0,0 +1,7 @@
+package com.example.demo.event;
+
+// Published when what a ballot shows may have changed: a candidate was added, edited,
+// approved or deleted (electionId set), or a voter's name changed (electionId null,
+// meaning any election)
+public record CandidatesChangedEvent(Long electionId) {
+}
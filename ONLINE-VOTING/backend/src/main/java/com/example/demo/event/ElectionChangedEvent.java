@@ -0,0 +1,6 @@
+package com.example.demo.event;
+
+// Published by ElectionsService after an election is created, edited, has its status
+// changed or is deleted
+public record ElectionChangedEvent(Long electionId) {
+}
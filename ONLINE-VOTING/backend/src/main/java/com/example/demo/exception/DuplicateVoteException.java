@@ -0,0 +1,10 @@
+package com.example.demo.exception;
+
+// Thrown when a voter has already voted for a post in an election. Controllers map
+// it to 409.
+public class DuplicateVoteException extends RuntimeException {
+
+    public DuplicateVoteException(String message) {
+        super(message);
+    }
+}
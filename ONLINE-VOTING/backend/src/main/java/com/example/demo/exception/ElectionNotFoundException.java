@@ -0,0 +1,10 @@
+package com.example.demo.exception;
+
+// Thrown when an election does not exist or has been deleted. ApiExceptionHandler
+// maps it to 404.
+public class ElectionNotFoundException extends RuntimeException {
+
+    public ElectionNotFoundException(Long electionId) {
+        super("Election not found with ID " + electionId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.exception;
+
+// Thrown when a bounded resource (queue, pool, limiter) is full and the request
+// should be retried later instead of waiting. Controllers map it to 503.
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "candidates")
 @Table(name = "candidates")
 public class Candidates {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled ids, like Votes
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "candidates_ids")
+    @TableGenerator(name = "candidates_ids", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "candidates", allocationSize = 50)
     @Column(name = "candidate_id")
     @JsonProperty("candidateId")
     private Long candidateId;
@@ -0,0 +1,63 @@
+package com.example.demo.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+// The final results of an election, written once when it closes and never updated.
+// resultsJson is the FinalResults document exactly as it is served.
+@Entity
+@Immutable
+@Table(name = "election_results")
+public class ElectionResults {
+
+    @Id
+    @Column(name = "election_id")
+    private Long electionId;
+
+    @Column(nullable = false, updatable = false)
+    private Instant finalizedAt;
+
+    @Column(updatable = false)
+    private long totalVotes;
+
+    @Column(updatable = false)
+    private long ballotsCast;
+
+    @Lob
+    @Column(name = "results_json", nullable = false, updatable = false)
+    private String resultsJson;
+
+    protected ElectionResults() {
+    }
+
+    public ElectionResults(Long electionId, Instant finalizedAt, long totalVotes, long ballotsCast,
+            String resultsJson) {
+        this.electionId = electionId;
+        this.finalizedAt = finalizedAt;
+        this.totalVotes = totalVotes;
+        this.ballotsCast = ballotsCast;
+        this.resultsJson = resultsJson;
+    }
+
+    public Long getElectionId() {
+        return electionId;
+    }
+
+    public Instant getFinalizedAt() {
+        return finalizedAt;
+    }
+
+    public long getTotalVotes() {
+        return totalVotes;
+    }
+
+    public long getBallotsCast() {
+        return ballotsCast;
+    }
+
+    public String getResultsJson() {
+        return resultsJson;
+    }
+}
@@ -5,8 +5,12 @@ import java.time.Instant;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "elections")
 @Table(name = "elections")
 public class Elections {
 
@@ -30,6 +34,10 @@ public class Elections {
     // Add deleted flag
     private boolean deleted = false;
 
+    // Set while ElectionDeleter removes the votes and candidates; the election is
+    // hidden from then on and deleted is set once they are gone
+    private boolean deleting = false;
+
     // Constructors
     public Elections() {
     }
@@ -100,4 +108,12 @@ public class Elections {
     public void setDeleted(boolean deleted) {
         this.deleted = deleted;
     }
+
+    public boolean isDeleting() {
+        return deleting;
+    }
+
+    public void setDeleting(boolean deleting) {
+        this.deleting = deleting;
+    }
 }
\ No newline at end of file
@@ -1,13 +1,25 @@
 package com.example.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Locale;
+
 @Entity
+// Login looks voters up by login_key (see VoterService.getByCredentials)
+@Table(indexes = @Index(name = "idx_voter_login_key", columnList = "login_key"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "voter")
 public class Voter {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled ids, like Votes
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "voter_ids")
+    @TableGenerator(name = "voter_ids", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "voter", allocationSize = 50)
     @Column(name = "id")
     @JsonProperty("id")
     private Long id;
@@ -28,6 +40,11 @@ public class Voter {
     private String passwordHash;
     private Boolean approved;
 
+    // Case-folded "universityId|email", kept in step with those two fields on every save
+    @JsonIgnore
+    @Column(name = "login_key", length = 512)
+    private String loginKey;
+
     // Constructors
     public Voter() {
     }
@@ -110,4 +127,22 @@ public class Voter {
         this.approved = approved;
     }
 
+    public String getLoginKey() {
+        return loginKey;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateLoginKey() {
+        loginKey = loginKey(universityId, email);
+    }
+
+    // The lookup key for a login attempt: university ID and email, trimmed and lower-cased
+    public static String loginKey(String universityId, String email) {
+        if (universityId == null || email == null) {
+            return null;
+        }
+        return universityId.trim().toLowerCase(Locale.ROOT) + "|" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
 }
\ No newline at end of file
@@ -5,12 +5,16 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "votes", uniqueConstraints = {
-        @UniqueConstraint(columnNames = { "voter_id", "election_id", "post_id" })
+        @UniqueConstraint(columnNames = { "voter_id", "election_id", "post" })
 })
 public class Votes {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids come from the id_sequences table in blocks of 50, so inserts can be batched
+    // (IDENTITY forces one INSERT per row to read the generated key back)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "votes_ids")
+    @TableGenerator(name = "votes_ids", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "votes", allocationSize = 50)
     @Column(name = "vote_id")
     private Long voteId;
 
@@ -27,6 +31,10 @@ public class Votes {
     @JoinColumn(name = "election_id", referencedColumnName = "id")
     private Elections election;
 
+    // Copy of the candidate's post, so the unique constraint can stop a second vote
+    // for the same post without a join
+    private String post;
+
     private LocalDateTime timestamp;
 
     // -------------------
@@ -64,6 +72,14 @@ public class Votes {
         this.election = election;
     }
 
+    public String getPost() {
+        return post;
+    }
+
+    public void setPost(String post) {
+        this.post = post;
+    }
+
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
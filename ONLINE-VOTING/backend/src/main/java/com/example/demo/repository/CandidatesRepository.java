@@ -3,10 +3,15 @@ package com.example.demo.repository;
 import com.example.demo.model.Candidates;
 import com.example.demo.model.Elections;
 import com.example.demo.model.Voter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -15,10 +20,31 @@ public interface CandidatesRepository extends JpaRepository<Candidates, Long> {
     // Check if a voter is already a candidate in a specific election
     boolean existsByVoterAndElections(Voter voter, Elections elections);
 
-    // Get candidates by election ID - using proper JPA naming convention
+    // Get candidates by election ID - using proper JPA naming convention. The candidate
+    // ids go in the query cache (dropped on any Hibernate write to candidates) and the
+    // candidates, their voters and election come from the entity cache.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Candidates> findByElections_Id(Long electionId);
 
-    // Delete candidates by election ID
+    // (candidateId, post) for every candidate in an election, without loading entities
+    @Query("SELECT c.candidateId, c.post FROM Candidates c WHERE c.elections.id = :electionId")
+    List<Object[]> findIdAndPostByElectionId(@Param("electionId") Long electionId);
+
+    // (electionId, post) of one candidate, without loading the candidate's voter and election
+    @Query("SELECT c.elections.id, c.post FROM Candidates c WHERE c.candidateId = :candidateId")
+    List<Object[]> findElectionAndPostById(@Param("candidateId") Long candidateId);
+
+    // Everything a ballot shows, in one query: (candidateId, post, firstName, lastName,
+    // bio, imageUrl, approved), ordered by post
+    @Query("SELECT c.candidateId, c.post, v.firstName, v.lastName, c.bio, c.imageUrl, c.approved "
+            + "FROM Candidates c JOIN c.voter v WHERE c.elections.id = :electionId "
+            + "ORDER BY c.post, c.candidateId")
+    List<Object[]> findBallotRowsByElectionId(@Param("electionId") Long electionId);
+
+    // Delete candidates by election ID, in one statement (their votes must be gone
+    // first). A bulk delete also clears the candidates entity and query caches.
+    @Modifying
+    @Transactional
     @Query("DELETE FROM Candidates c WHERE c.elections.id = :electionId")
-    void deleteByElectionId(@Param("electionId") Long electionId);
+    int deleteByElectionId(@Param("electionId") Long electionId);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ElectionResults;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ElectionResultsRepository extends JpaRepository<ElectionResults, Long> {
+
+    // Which elections have final results, loaded once by ResultsFinalizer
+    @Query("SELECT r.electionId FROM ElectionResults r")
+    List<Long> findAllElectionIds();
+}
@@ -9,6 +9,12 @@ import java.util.List;
 public interface ElectionsRepository extends JpaRepository<Elections, Long> {
     // Only ElectionsRepository code here
 
-    // Method to find all non-deleted elections
-    List<Elections> findByDeletedFalse();
+    // Method to find all non-deleted elections (also leaving out those being deleted)
+    List<Elections> findByDeletedFalseAndDeletingFalse();
+
+    // Deletions that were interrupted, to be resumed at startup
+    List<Elections> findByDeletingTrueAndDeletedFalse();
+
+    // An election that exists and has not been deleted (it may still be being deleted)
+    boolean existsByIdAndDeletedFalse(Long id);
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.VoterSummary;
 import com.example.demo.model.Voter;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -16,6 +20,15 @@ public interface VoterRepository extends JpaRepository<Voter, Long> {
 
     Voter findByUniversityId(String universityId);
 
+    // Usually one voter; email and university ID are unique as typed, not case-folded
+    List<Voter> findByLoginKey(String loginKey);
+
     List<Voter> findAllByOrderByIdAsc();
 
+    // Keyset page of the voter list: the next voters after the given id, without
+    // loading entities or password hashes
+    @Query("SELECT new com.example.demo.dto.VoterSummary(v.id, v.firstName, v.lastName, v.email, "
+            + "v.universityId, v.approved) FROM Voter v WHERE v.id > :after ORDER BY v.id")
+    List<VoterSummary> findSummariesAfter(@Param("after") Long after, Limit limit);
+
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Votes;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,30 +16,53 @@ public interface VotesRepository extends JpaRepository<Votes, Long> {
 
     boolean existsByVoterIdAndElectionId(Long voterId, Long electionId);
 
-    // Method to check if a voter has already voted for a specific post in an
-    // election
-    @Query("SELECT COUNT(v) > 0 FROM Votes v WHERE v.voter.id = :voterId AND v.election.id = :electionId AND v.candidate.post = :post")
-    boolean existsByVoterIdAndElectionIdAndCandidatePost(@Param("voterId") Long voterId,
-            @Param("electionId") Long electionId, @Param("post") String post);
+    // Used when replaying the vote journal to skip votes that were already written
+    boolean existsByVoter_IdAndCandidate_CandidateId(Long voterId, Long candidateId);
+
+    // (voterId, post) for every vote in an election, used to load the dedup index. The
+    // post is the one stored on the vote, which the unique constraint is on; the
+    // candidate may have moved to another post since.
+    @Query("SELECT v.voter.id, v.post FROM Votes v WHERE v.election.id = :electionId")
+    List<Object[]> findVoterPostPairsByElection(@Param("electionId") Long electionId);
 
     // CRITICAL FIX: Changed v.elections.electionId to v.election.id
     @Query("SELECT v.candidate, COUNT(v) FROM Votes v WHERE v.election.id = :electionId GROUP BY v.candidate.post, v.candidate.candidateId")
     List<Object[]> countVotesByElection(@Param("electionId") Long electionId);
 
+    // Vote count per candidate ID, without loading the candidates (used by TallyEngine)
+    @Query("SELECT v.candidate.candidateId, COUNT(v) FROM Votes v WHERE v.election.id = :electionId GROUP BY v.candidate.candidateId")
+    List<Object[]> countVotesPerCandidate(@Param("electionId") Long electionId);
+
+    // Voters with at least one vote in the election (turnout in the final results)
+    @Query("SELECT COUNT(DISTINCT v.voter.id) FROM Votes v WHERE v.election.id = :electionId")
+    long countVotersByElection(@Param("electionId") Long electionId);
+
     // CRITICAL FIX: Changed findByElection_Id to findByElection_id
     List<Votes> findByElection_id(Long electionId);
 
     // Delete votes by election ID
     @Modifying
+    @Transactional
     @Query("DELETE FROM Votes v WHERE v.election.id = :electionId")
     void deleteByElectionId(@Param("electionId") Long electionId);
 
+    // The lowest vote ids of an election; ElectionDeleter deletes up to the last of them
+    @Query("SELECT v.voteId FROM Votes v WHERE v.election.id = :electionId ORDER BY v.voteId")
+    List<Long> findVoteIdsByElection(@Param("electionId") Long electionId, Limit limit);
+
+    // One chunk of an election's votes, in its own short transaction
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Votes v WHERE v.election.id = :electionId AND v.voteId <= :lastVoteId")
+    int deleteByElectionIdUpTo(@Param("electionId") Long electionId, @Param("lastVoteId") Long lastVoteId);
+
     // Method to find votes by candidate ID
     @Query("SELECT v FROM Votes v WHERE v.candidate.candidateId = :candidateId")
     List<Votes> findByCandidateId(@Param("candidateId") Long candidateId);
 
     // Method to delete votes by candidate ID
     @Modifying
+    @Transactional
     @Query("DELETE FROM Votes v WHERE v.candidate.candidateId = :candidateId")
     void deleteByCandidateId(@Param("candidateId") Long candidateId);
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BallotView;
+import com.example.demo.dto.TallySnapshot;
+import com.example.demo.event.CandidatesChangedEvent;
+import com.example.demo.exception.ElectionNotFoundException;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.util.ContentETag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Precomputed ballots, one per election.
+ *
+ * A ballot is built from a single projection query (no Candidates entities, so
+ * none of their EAGER voter/election loads) and kept as an immutable BallotView
+ * plus its JSON, both in the grouped form and as the flat candidate list the
+ * ballot page reads. A CandidatesChangedEvent gives the election a new version;
+ * the ballot is rebuilt on the next read, and a build that raced with the change
+ * carries the old version and is not served. Versions live in memory and start
+ * again on every boot, so the ETag is a hash of the candidates instead. Unknown
+ * and deleted elections throw ElectionNotFoundException.
+ */
+@Service
+public class BallotReadModel {
+
+    @Autowired
+    private CandidatesRepository candidatesRepository;
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // One counter for all elections, so a version is never reused within a run
+    private final AtomicLong versions = new AtomicLong();
+    private final ConcurrentHashMap<Long, Slot> ballots = new ConcurrentHashMap<>();
+
+    private final class Slot {
+        private volatile long version = versions.incrementAndGet();
+        private volatile Ballot ballot;
+    }
+
+    // view is the grouped ballot; candidatesJson is the flat list of its candidates,
+    // which holds everything view does but the version, and is what etag is taken from
+    public record Ballot(BallotView view, byte[] viewJson, byte[] candidatesJson, String etag) {
+    }
+
+    public Ballot get(Long electionId) {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID must not be null");
+        }
+        // Only elections that exist get a slot; ElectionDeleter evicts it on deletion
+        Slot slot = ballots.computeIfAbsent(electionId, id -> {
+            if (!electionsRepository.existsByIdAndDeletedFalse(id)) {
+                throw new ElectionNotFoundException(id);
+            }
+            return new Slot();
+        });
+        long version = slot.version;
+        Ballot current = slot.ballot;
+        if (current != null && current.view().version() == version) {
+            return current;
+        }
+        Ballot rebuilt = build(electionId, version);
+        slot.ballot = rebuilt;
+        return rebuilt;
+    }
+
+    public void evict(Long electionId) {
+        ballots.remove(electionId);
+    }
+
+    @EventListener
+    public void onCandidatesChanged(CandidatesChangedEvent event) {
+        if (event.electionId() == null) {
+            ballots.values().forEach(slot -> slot.version = versions.incrementAndGet());
+        } else {
+            Slot slot = ballots.get(event.electionId());
+            if (slot != null) {
+                slot.version = versions.incrementAndGet();
+            }
+        }
+    }
+
+    private Ballot build(Long electionId, long version) {
+        Map<String, List<BallotView.BallotCandidate>> byPost = new LinkedHashMap<>();
+        List<BallotView.BallotCandidate> all = new ArrayList<>();
+        // Rows come ordered by post, then candidate id
+        for (Object[] row : candidatesRepository.findBallotRowsByElectionId(electionId)) {
+            String post = (String) row[1];
+            BallotView.BallotCandidate candidate = new BallotView.BallotCandidate((Long) row[0], post,
+                    new TallySnapshot.VoterName((String) row[2], (String) row[3]), (String) row[4],
+                    (String) row[5], (Boolean) row[6]);
+            byPost.computeIfAbsent(post != null ? post : "", p -> new ArrayList<>()).add(candidate);
+            all.add(candidate);
+        }
+        List<BallotView.BallotPost> posts = new ArrayList<>(byPost.size());
+        byPost.forEach((post, candidates) -> posts.add(new BallotView.BallotPost(post, List.copyOf(candidates))));
+
+        BallotView view = new BallotView(electionId, version, List.copyOf(posts));
+        try {
+            byte[] candidatesJson = objectMapper.writeValueAsBytes(all);
+            return new Ballot(view, objectMapper.writeValueAsBytes(view), candidatesJson,
+                    ContentETag.of(candidatesJson));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ballot: " + e.getMessage(), e);
+        }
+    }
+}
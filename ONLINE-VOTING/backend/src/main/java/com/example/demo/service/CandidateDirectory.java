@@ -0,0 +1,69 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.CandidatesRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Cached candidate -> (election, post) lookups for the vote path.
+ *
+ * Casting a vote only needs to know which election and post a candidate stands
+ * for, so instead of loading the Candidates entity (and its EAGER voter and
+ * election) on every vote, the pair is read once with a projection query and
+ * kept here. CandidatesService invalidates an entry when its candidate is edited
+ * or removed, and ElectionDeleter drops a deleted election's entries.
+ */
+@Service
+public class CandidateDirectory {
+
+    @Autowired
+    private CandidatesRepository candidatesRepository;
+
+    private final ConcurrentHashMap<Long, Placement> placements = new ConcurrentHashMap<>();
+    // Moved on by every invalidation, so a lookup that overlapped one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public record Placement(Long electionId, String post) {
+    }
+
+    // Returns null if there is no such candidate
+    public Placement find(Long candidateId) {
+        if (candidateId == null) {
+            throw new IllegalArgumentException("Candidate ID must not be null");
+        }
+        Placement cached = placements.get(candidateId);
+        if (cached != null) {
+            return cached;
+        }
+        long before = generation.get();
+        List<Object[]> rows = candidatesRepository.findElectionAndPostById(candidateId);
+        if (rows.isEmpty()) {
+            // Not cached, so a candidate created later is found
+            return null;
+        }
+        Placement placement = new Placement((Long) rows.get(0)[0], (String) rows.get(0)[1]);
+        placements.putIfAbsent(candidateId, placement);
+        // An invalidation may have run while the row was read: it either moved the
+        // generation before this check, or its removal comes after the put
+        if (generation.get() != before) {
+            placements.remove(candidateId, placement);
+        }
+        return placement;
+    }
+
+    public void invalidate(Long candidateId) {
+        if (candidateId != null) {
+            generation.incrementAndGet();
+            placements.remove(candidateId);
+        }
+    }
+
+    public void invalidateElection(Long electionId) {
+        generation.incrementAndGet();
+        placements.values().removeIf(placement -> placement.electionId().equals(electionId));
+    }
+}
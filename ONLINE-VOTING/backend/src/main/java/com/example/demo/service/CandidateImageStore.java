@@ -0,0 +1,241 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/*
+ * Candidate photos, stored under the SHA-256 of their content.
+ *
+ * The request thread only moves the upload into place and hashes it; the same
+ * photo uploaded twice is stored once. Scaled-down JPEG variants (one per
+ * configured width) are made on a small bounded pool, and reads pick the smallest
+ * variant at least as wide as the client asked for, falling back to the original
+ * while the variants are still being made.
+ */
+@Service
+public class CandidateImageStore {
+
+    // What a stored image is called: <sha-256>.<extension>
+    private static final Pattern IMAGE_NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|jpeg|png|gif|bmp|webp)");
+    private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "webp");
+
+    // Public path the stored images are served from (see CandidateController)
+    public static final String URL_PREFIX = "/api/v1/candidates/images/";
+
+    @Value("${voting.images.dir:uploads/candidates}")
+    private String directory;
+
+    // Widths (px) of the variants made for each image, e.g. avatar and card sizes at 1x and 2x
+    @Value("${voting.images.variant-widths:96,192,384}")
+    private int[] variantWidths;
+
+    @Value("${voting.images.workers:2}")
+    private int workers;
+
+    // Uploads waiting for variants; when full, the uploading request makes its own
+    @Value("${voting.images.queue-capacity:100}")
+    private int queueCapacity;
+
+    private Path root;
+    private ThreadPoolExecutor pool;
+
+    // A stored image; url is what goes in Candidates.imageUrl
+    public record StoredImage(String name, String url, boolean duplicate) {
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        variantWidths = Arrays.stream(variantWidths).sorted().distinct().toArray();
+        AtomicInteger threads = new AtomicInteger();
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "candidate-images-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    public StoredImage store(MultipartFile file) throws IOException {
+        String extension = extensionOf(file);
+        Path upload = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            // A rename when the container already spooled the upload to disk
+            file.transferTo(upload.toAbsolutePath().toFile());
+            String name = sha256(upload) + "." + extension;
+            Path target = root.resolve(name);
+            boolean duplicate = false;
+            try {
+                moveIntoPlace(upload, target);
+            } catch (FileAlreadyExistsException e) {
+                duplicate = true;
+            }
+            if (!duplicate || missingVariants(name)) {
+                pool.execute(() -> makeVariants(name));
+            }
+            return new StoredImage(name, URL_PREFIX + name, duplicate);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    // The file to send for a request of the given width (null for the original). Both
+    // the original and a finished variant never change once written.
+    public Optional<Path> resolve(String name, Integer width) {
+        if (name == null || !IMAGE_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path original = root.resolve(name);
+        if (!Files.exists(original)) {
+            return Optional.empty();
+        }
+        if (width != null) {
+            for (int variantWidth : variantWidths) {
+                if (variantWidth >= width) {
+                    Path variant = variantPath(name, variantWidth);
+                    if (Files.exists(variant)) {
+                        return Optional.of(variant);
+                    }
+                    break;
+                }
+            }
+        }
+        return Optional.of(original);
+    }
+
+    private void makeVariants(String name) {
+        try {
+            BufferedImage source = ImageIO.read(root.resolve(name).toFile());
+            if (source == null) {
+                System.err.println("Candidate image " + name + " is not a readable image; serving it as uploaded");
+                return;
+            }
+            for (int width : variantWidths) {
+                Path variant = variantPath(name, width);
+                if (Files.exists(variant)) {
+                    continue;
+                }
+                // Never scale up: small photos get a variant at their own size
+                int targetWidth = Math.min(width, source.getWidth());
+                int targetHeight = Math.max(1, (int) Math.round(
+                        (double) source.getHeight() * targetWidth / source.getWidth()));
+                BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = scaled.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    // JPEG has no transparency; transparent areas become white
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, targetWidth, targetHeight);
+                    graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+                } finally {
+                    graphics.dispose();
+                }
+                // Written under a temporary name so readers never see a partial file
+                Path partial = Files.createTempFile(root, "variant-", ".tmp");
+                try {
+                    ImageIO.write(scaled, "jpg", partial.toFile());
+                    Files.move(partial, variant, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(partial);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to make variants of candidate image " + name + ": " + e.getMessage());
+        }
+    }
+
+    private boolean missingVariants(String name) {
+        for (int width : variantWidths) {
+            if (!Files.exists(variantPath(name, width))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path variantPath(String name, int width) {
+        return root.resolve(name.substring(0, name.indexOf('.')) + "-" + width + ".jpg");
+    }
+
+    // Fails if the target exists, so a duplicate upload never rewrites the stored copy
+    private static void moveIntoPlace(Path upload, Path target) throws IOException {
+        if (Files.exists(target)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        try {
+            Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(upload, target);
+        }
+    }
+
+    private static String extensionOf(MultipartFile file) {
+        String filename = file.getOriginalFilename();
+        if (filename != null && filename.lastIndexOf('.') >= 0) {
+            String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            if (EXTENSIONS.contains(extension)) {
+                return extension.equals("jpeg") ? "jpg" : extension;
+            }
+        }
+        String contentType = file.getContentType();
+        if (contentType != null && contentType.startsWith("image/")) {
+            String subtype = contentType.substring("image/".length()).toLowerCase(Locale.ROOT);
+            if (EXTENSIONS.contains(subtype)) {
+                return subtype.equals("jpeg") ? "jpg" : subtype;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported image type: " + filename);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.event.CandidatesChangedEvent;
 import com.example.demo.model.Candidates;
 import com.example.demo.model.Elections;
 import com.example.demo.model.Voter;
@@ -7,8 +8,10 @@ import com.example.demo.repository.CandidatesRepository;
 import com.example.demo.repository.VoterRepository;
 import com.example.demo.repository.ElectionsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +30,16 @@ public class CandidatesService {
     @Autowired
     private VotesService votesService;
 
+    @Autowired
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private CandidateDirectory candidateDirectory;
+
+    // Tells the ballot read model which election's ballot to rebuild
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Create a new candidate
     public Candidates addCandidates(Candidates candidates) {
         try {
@@ -49,6 +62,11 @@ public class CandidatesService {
             Candidates saved = candidatesRepository.save(candidates);
             System.out.println("Candidate saved successfully with ID: " + saved.getCandidateId());
 
+            if (saved.getElections() != null && saved.getElections().getId() != null) {
+                tallyEngine.refreshCandidates(saved.getElections().getId());
+                eventPublisher.publishEvent(new CandidatesChangedEvent(saved.getElections().getId()));
+            }
+
             return saved;
         } catch (Exception e) {
             System.err.println("=== CANDIDATE CREATION ERROR ===");
@@ -61,17 +79,20 @@ public class CandidatesService {
         }
     }
 
-    // Get all candidates
+    // Get all candidates (read-only: served by the read replica when one is configured)
+    @Transactional(readOnly = true)
     public List<Candidates> getAllCandidates() {
         return candidatesRepository.findAll();
     }
 
     // Get candidate by ID
+    @Transactional(readOnly = true)
     public Optional<Candidates> getCandidateById(@NonNull Long candidateId) {
         return candidatesRepository.findById(candidateId);
     }
 
     // Get candidates by election ID
+    @Transactional(readOnly = true)
     public List<Candidates> getCandidatesByElection(@NonNull Long electionId) {
         return candidatesRepository.findByElections_Id(electionId);
     }
@@ -85,6 +106,7 @@ public class CandidatesService {
         Candidates candidate = candidatesRepository.findById(candidateId)
                 .orElseThrow(() -> new IllegalArgumentException("Candidate not found with candidateId " + candidateId));
 
+        Long previousElectionId = candidate.getElections() != null ? candidate.getElections().getId() : null;
         candidate.setPost(candidatesDetails.getPost());
         candidate.setBio(candidatesDetails.getBio());
         candidate.setApproved(candidatesDetails.getApproved());
@@ -104,16 +126,39 @@ public class CandidatesService {
             candidate.setElections(election);
         }
 
-        return candidatesRepository.save(candidate);
+        Candidates saved = candidatesRepository.save(candidate);
+
+        // Keep names and posts on the live tally and the vote path in step
+        candidateDirectory.invalidate(candidateId);
+        if (previousElectionId != null) {
+            tallyEngine.refreshCandidates(previousElectionId);
+            eventPublisher.publishEvent(new CandidatesChangedEvent(previousElectionId));
+        }
+        if (saved.getElections() != null && !saved.getElections().getId().equals(previousElectionId)) {
+            tallyEngine.refreshCandidates(saved.getElections().getId());
+            eventPublisher.publishEvent(new CandidatesChangedEvent(saved.getElections().getId()));
+        }
+        return saved;
     }
 
     // Delete candidate
     public void deleteCandidate(@NonNull Long candidateId) {
+        Long electionId = candidatesRepository.findById(candidateId)
+                .map(candidate -> candidate.getElections().getId())
+                .orElse(null);
+
         // First delete all votes associated with this candidate to avoid foreign key
         // constraint violations
         votesService.deleteByCandidateId(candidateId);
 
         // Then delete the candidate
         candidatesRepository.deleteById(candidateId);
+        candidateDirectory.invalidate(candidateId);
+
+        // The candidate and its votes drop off the live tally
+        if (electionId != null) {
+            tallyEngine.refreshCandidates(electionId);
+            eventPublisher.publishEvent(new CandidatesChangedEvent(electionId));
+        }
     }
 }
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ElectionChangedEvent;
+import com.example.demo.model.Elections;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.util.ContentETag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * The election list and each election by id, cached as ready-to-send JSON.
+ *
+ * Elections change a handful of times per election and are read on every page
+ * load, so reads are served from byte arrays serialized once with the same
+ * ObjectMapper Spring MVC uses. Any ElectionChangedEvent bumps the generation,
+ * which retires every cached entry; an entry built from a read that raced with
+ * a change carries the old generation and is never served. The ETag is a hash
+ * of the JSON, not the generation, which starts again at 0 on every boot.
+ */
+@Service
+public class ElectionCatalog {
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CachedJson list;
+    private final ConcurrentHashMap<Long, CachedJson> byId = new ConcurrentHashMap<>();
+
+    // JSON body, the generation it was built in and the body's ETag
+    public record CachedJson(long generation, byte[] json, String etag) {
+
+        CachedJson(long generation, byte[] json) {
+            this(generation, json, ContentETag.of(json));
+        }
+    }
+
+    // All non-deleted elections
+    public CachedJson getAll() {
+        CachedJson cached = list;
+        if (cached != null && cached.generation() == generation.get()) {
+            return cached;
+        }
+        long current = generation.get();
+        List<Elections> elections = electionsRepository.findByDeletedFalseAndDeletingFalse();
+        CachedJson rebuilt = new CachedJson(current, toJson(elections));
+        list = rebuilt;
+        return rebuilt;
+    }
+
+    public Optional<CachedJson> getById(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Election ID cannot be null");
+        }
+        CachedJson cached = byId.get(id);
+        if (cached != null && cached.generation() == generation.get()) {
+            return Optional.of(cached);
+        }
+        long current = generation.get();
+        Optional<Elections> election = electionsRepository.findById(id);
+        if (election.isEmpty()) {
+            byId.remove(id);
+            return Optional.empty();
+        }
+        CachedJson rebuilt = new CachedJson(current, toJson(election.get()));
+        byId.put(id, rebuilt);
+        return Optional.of(rebuilt);
+    }
+
+    @EventListener
+    public void onElectionChanged(ElectionChangedEvent event) {
+        generation.incrementAndGet();
+        list = null;
+        if (event.electionId() != null) {
+            byId.remove(event.electionId());
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize elections: " + e.getMessage(), e);
+        }
+    }
+}
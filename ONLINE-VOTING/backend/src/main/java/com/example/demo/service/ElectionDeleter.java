@@ -0,0 +1,220 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ElectionDeletionStatus;
+import com.example.demo.event.CandidatesChangedEvent;
+import com.example.demo.event.ElectionChangedEvent;
+import com.example.demo.model.Elections;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VotesRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Deletes elections in the background.
+ *
+ * A deletion request only marks the election as deleting, which hides it at once.
+ * A single worker thread then deletes its votes a chunk at a time (each chunk its
+ * own short transaction, so other writers are never locked out for long), then
+ * its candidates in one statement, and finally sets deleted. Every step can be
+ * repeated, so an election still marked deleting at startup, after a crash or
+ * restart mid-way, simply has its deletion run again.
+ */
+@Service
+public class ElectionDeleter {
+
+    // Votes cast for the election while its votes were being deleted block the
+    // candidate delete; after this many rounds of catching up the job gives up
+    private static final int MAX_PASSES = 5;
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
+    @Autowired
+    private VotesRepository votesRepository;
+
+    @Autowired
+    private CandidatesRepository candidatesRepository;
+
+    @Autowired
+    private VoteDedupIndex voteDedupIndex;
+
+    @Autowired
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private CandidateDirectory candidateDirectory;
+
+    @Autowired
+    private BallotReadModel ballotReadModel;
+
+    @Autowired
+    private ResultsFinalizer resultsFinalizer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${voting.elections.delete-chunk-size:1000}")
+    private int chunkSize;
+
+    // Pause between chunks, leaving the votes table to vote casting for a moment
+    @Value("${voting.elections.delete-pause-ms:10}")
+    private long pauseMs;
+
+    private final class Job {
+        private final Long electionId;
+        private final Instant requestedAt = Instant.now();
+        private volatile String state = "QUEUED";
+        private volatile long votesDeleted;
+        private volatile long candidatesDeleted;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        Job(Long electionId) {
+            this.electionId = electionId;
+        }
+
+        boolean active() {
+            return "QUEUED".equals(state) || "RUNNING".equals(state);
+        }
+
+        ElectionDeletionStatus status() {
+            return new ElectionDeletionStatus(electionId, state, votesDeleted, candidatesDeleted, requestedAt,
+                    finishedAt, error);
+        }
+    }
+
+    // Latest job per election, kept after it finishes so its outcome can be read
+    private final ConcurrentHashMap<Long, Job> jobs = new ConcurrentHashMap<>();
+    private ExecutorService worker;
+
+    @PostConstruct
+    void start() {
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "election-deleter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        // An interrupted deletion is resumed on the next start
+        worker.shutdownNow();
+    }
+
+    // Hide the election and queue its deletion; empty if there is no such election
+    public Optional<ElectionDeletionStatus> requestDeletion(Long electionId) {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID cannot be null");
+        }
+        Job current = jobs.get(electionId);
+        if (current != null && current.active()) {
+            return Optional.of(current.status());
+        }
+        Elections election = electionsRepository.findById(electionId).orElse(null);
+        if (election == null || election.isDeleted()) {
+            return Optional.empty();
+        }
+        if (!election.isDeleting()) {
+            election.setDeleting(true);
+            electionsRepository.save(election);
+            eventPublisher.publishEvent(new ElectionChangedEvent(electionId));
+        }
+        return Optional.of(submit(electionId).status());
+    }
+
+    public Optional<ElectionDeletionStatus> getStatus(Long electionId) {
+        return Optional.ofNullable(jobs.get(electionId)).map(Job::status);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        for (Elections election : electionsRepository.findByDeletingTrueAndDeletedFalse()) {
+            System.out.println("Resuming deletion of election " + election.getId());
+            submit(election.getId());
+        }
+    }
+
+    private Job submit(Long electionId) {
+        Job[] created = new Job[1];
+        Job job = jobs.compute(electionId,
+                (id, existing) -> existing != null && existing.active() ? existing : (created[0] = new Job(id)));
+        if (created[0] != null) {
+            worker.execute(() -> run(created[0]));
+        }
+        return job;
+    }
+
+    private void run(Job job) {
+        job.state = "RUNNING";
+        Long electionId = job.electionId;
+        try {
+            for (int pass = 1;; pass++) {
+                deleteVotes(job);
+                try {
+                    job.candidatesDeleted += candidatesRepository.deleteByElectionId(electionId);
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    if (pass == MAX_PASSES) {
+                        throw e;
+                    }
+                }
+            }
+
+            Elections election = electionsRepository.findById(electionId)
+                    .orElseThrow(() -> new RuntimeException("Election not found with ID " + electionId));
+            resultsFinalizer.discard(electionId);
+            election.setDeleted(true);
+            election.setDeleting(false);
+            electionsRepository.save(election);
+            voteDedupIndex.evict(electionId);
+            tallyEngine.evict(electionId);
+            candidateDirectory.invalidateElection(electionId);
+            ballotReadModel.evict(electionId);
+            eventPublisher.publishEvent(new ElectionChangedEvent(electionId));
+            eventPublisher.publishEvent(new CandidatesChangedEvent(electionId));
+
+            job.finishedAt = Instant.now();
+            job.state = "DONE";
+            System.out.println("Deleted election " + electionId + ": " + job.votesDeleted + " votes, "
+                    + job.candidatesDeleted + " candidates");
+        } catch (RuntimeException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            job.error = e.getMessage();
+            job.finishedAt = Instant.now();
+            job.state = "FAILED";
+            System.err.println("Error deleting election with ID " + electionId + ": " + e.getMessage());
+        }
+    }
+
+    private void deleteVotes(Job job) throws InterruptedException {
+        while (true) {
+            List<Long> chunk = votesRepository.findVoteIdsByElection(job.electionId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            job.votesDeleted += votesRepository.deleteByElectionIdUpTo(job.electionId, chunk.get(chunk.size() - 1));
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+    }
+}
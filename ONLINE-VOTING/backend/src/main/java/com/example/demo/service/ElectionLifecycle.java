@@ -0,0 +1,250 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ElectionChangedEvent;
+import com.example.demo.model.Elections;
+import com.example.demo.repository.ElectionsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Moves elections through upcoming -> active -> completed at their start and end
+ * times.
+ *
+ * Each election has at most one pending transition (its next start or end) in a
+ * DelayQueue, and one thread takes them off as they fall due. Opening an election
+ * loads its dedup index, live tally and ballot; closing it stores the final
+ * results (ResultsFinalizer) and drops the dedup index, which no vote needs any
+ * more. A completed election without final results, closed by an admin or
+ * before a restart, has them stored as soon as it is tracked. Times are
+ * authoritative and elections only move forward: an admin may open or close an
+ * election early, but an election reopened after its end time is closed again, so
+ * to extend voting, move end_time.
+ *
+ * Votes are refused for elections that are upcoming or completed, that have
+ * final results whatever their status says, or that are being (or have been)
+ * deleted (acceptsVotes). Other status values are left alone.
+ */
+@Service
+public class ElectionLifecycle implements SmartInitializingSingleton {
+
+    public static final String UPCOMING = "upcoming";
+    public static final String ACTIVE = "active";
+    public static final String COMPLETED = "completed";
+
+    private static final List<String> ORDER = List.of(UPCOMING, ACTIVE, COMPLETED);
+
+    private static final long RETRY_MS = 5_000;
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
+    @Autowired
+    private ElectionsService electionsService;
+
+    @Autowired
+    private VoteDedupIndex voteDedupIndex;
+
+    @Autowired
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private BallotReadModel ballotReadModel;
+
+    @Autowired
+    private ResultsFinalizer resultsFinalizer;
+
+    // Off in tests, where elections start and end at the moment they are created
+    @Value("${voting.lifecycle.enabled:true}")
+    private boolean enabled;
+
+    // An election's next transition; version tells a stale one (the election has
+    // changed since it was queued) from the current one
+    private record Transition(Long electionId, long version, long dueMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueMillis, ((Transition) other).dueMillis);
+        }
+    }
+
+    private final DelayQueue<Transition> transitions = new DelayQueue<>();
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+    // Elections that are upcoming, completed, deleting or deleted, or have final results
+    private final Set<Long> closedToVotes = ConcurrentHashMap.newKeySet();
+
+    private Thread worker;
+    private volatile boolean running;
+
+    // Before the web server starts: every election is known before the first vote
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Elections election : electionsRepository.findByDeletedFalseAndDeletingFalse()) {
+            track(election);
+        }
+        // A deletion resumed at startup must not have votes cast under it
+        for (Elections election : electionsRepository.findByDeletingTrueAndDeletedFalse()) {
+            closedToVotes.add(election.getId());
+        }
+        if (enabled) {
+            running = true;
+            worker = new Thread(this::runTransitions, "election-lifecycle");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    public boolean acceptsVotes(Long electionId) {
+        return !closedToVotes.contains(electionId);
+    }
+
+    @EventListener
+    public void onElectionChanged(ElectionChangedEvent event) {
+        if (event.electionId() == null) {
+            return;
+        }
+        Optional<Elections> election = electionsRepository.findById(event.electionId());
+        if (election.isEmpty() || election.get().isDeleted() || election.get().isDeleting()) {
+            // Its candidates may still resolve, and a vote cast now would block
+            // ElectionDeleter's candidate delete
+            versions.remove(event.electionId());
+            closedToVotes.add(event.electionId());
+        } else {
+            track(election.get());
+        }
+    }
+
+    /*
+     * Bring an election's status up to date with the clock, running the open and
+     * close hooks, and queue its next transition. This is what the lifecycle thread
+     * runs when a transition falls due.
+     */
+    public void advance(Long electionId) {
+        Elections election = electionsRepository.findById(electionId).orElse(null);
+        if (election == null || election.isDeleted() || election.isDeleting()) {
+            return;
+        }
+        String current = status(election);
+        String due = dueStatus(election, Instant.now());
+        if (due != null && ORDER.indexOf(current) >= 0 && ORDER.indexOf(due) > ORDER.indexOf(current)) {
+            // Publishes ElectionChangedEvent, which re-tracks the election and queues what is next
+            electionsService.updateElectionStatus(electionId, due);
+            if (ACTIVE.equals(due)) {
+                opened(electionId);
+            } else if (COMPLETED.equals(due)) {
+                closed(electionId);
+            }
+            System.out.println("Election " + electionId + " is now " + due);
+        } else if (COMPLETED.equals(current) && !resultsFinalizer.isFinalized(electionId)) {
+            // Closed by an admin, or the results could not be stored last time
+            closed(electionId);
+        }
+    }
+
+    // Hooks: the work the first voter (or the first results viewer) would otherwise do
+    private void opened(Long electionId) {
+        voteDedupIndex.warm(electionId);
+        tallyEngine.ensureLoaded(electionId);
+        ballotReadModel.get(electionId);
+    }
+
+    private void closed(Long electionId) {
+        resultsFinalizer.finalizeResults(electionId);
+        voteDedupIndex.evict(electionId);
+    }
+
+    private void track(Elections election) {
+        Long id = election.getId();
+        String status = status(election);
+        boolean finalized = resultsFinalizer.isFinalized(id);
+        if (UPCOMING.equals(status) || COMPLETED.equals(status) || finalized) {
+            closedToVotes.add(id);
+        } else {
+            closedToVotes.remove(id);
+        }
+        long version = versions.merge(id, 1L, Long::sum);
+        Instant next = COMPLETED.equals(status) && !finalized ? Instant.now() : nextTransition(election);
+        if (enabled && next != null) {
+            transitions.put(new Transition(id, version, next.toEpochMilli()));
+        }
+    }
+
+    // When the election next changes status on its own (in the past if overdue)
+    private static Instant nextTransition(Elections election) {
+        int current = ORDER.indexOf(status(election));
+        if (current < 0) {
+            return null;
+        }
+        if (current < ORDER.indexOf(ACTIVE) && election.getStart_time() != null) {
+            return election.getStart_time();
+        }
+        if (current < ORDER.indexOf(COMPLETED) && election.getEnd_time() != null) {
+            return election.getEnd_time();
+        }
+        return null;
+    }
+
+    // The status the clock says the election should have, or null if it has no times
+    private static String dueStatus(Elections election, Instant now) {
+        if (election.getEnd_time() != null && !now.isBefore(election.getEnd_time())) {
+            return COMPLETED;
+        }
+        if (election.getStart_time() != null && !now.isBefore(election.getStart_time())) {
+            return ACTIVE;
+        }
+        return election.getStart_time() != null ? UPCOMING : null;
+    }
+
+    private static String status(Elections election) {
+        return election.getStatus() == null ? "" : election.getStatus().trim().toLowerCase();
+    }
+
+    private void runTransitions() {
+        while (running) {
+            Transition transition;
+            try {
+                transition = transitions.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!Long.valueOf(transition.version()).equals(versions.get(transition.electionId()))) {
+                continue;
+            }
+            try {
+                advance(transition.electionId());
+            } catch (RuntimeException e) {
+                // e.g. the database is briefly unavailable; the other elections carry on
+                System.err.println("Transition of election " + transition.electionId() + " failed, retrying in "
+                        + RETRY_MS + " ms: " + e.getMessage());
+                transitions.put(new Transition(transition.electionId(), transition.version(),
+                        System.currentTimeMillis() + RETRY_MS));
+            }
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.example.demo.service;
 
-import com.example.demo.model.Candidates;
+import com.example.demo.dto.ElectionDeletionStatus;
+import com.example.demo.event.ElectionChangedEvent;
 import com.example.demo.model.Elections;
-import com.example.demo.repository.CandidatesRepository;
 import com.example.demo.repository.ElectionsRepository;
-import com.example.demo.repository.VotesRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,16 +18,23 @@ public class ElectionsService {
     private ElectionsRepository electionsRepository;
 
     @Autowired
-    private CandidatesRepository candidatesRepository;
+    private VoteDedupIndex voteDedupIndex;
 
     @Autowired
-    private VotesRepository votesRepository;
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private ElectionDeleter electionDeleter;
+
+    // Tells the election catalog (and anyone else caching elections) to drop stale copies
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     // Get all elections (excluding deleted ones)
     public List<Elections> getAllElections() {
         try {
             // Return only non-deleted elections
-            return electionsRepository.findByDeletedFalse();
+            return electionsRepository.findByDeletedFalseAndDeletingFalse();
         } catch (Exception e) {
             System.err.println("Error retrieving elections: " + e.getMessage());
             e.printStackTrace();
@@ -55,7 +62,9 @@ public class ElectionsService {
             throw new IllegalArgumentException("Election cannot be null");
         }
         try {
-            return electionsRepository.save(election);
+            Elections saved = electionsRepository.save(election);
+            eventPublisher.publishEvent(new ElectionChangedEvent(saved.getId()));
+            return saved;
         } catch (Exception e) {
             System.err.println("Error creating election: " + e.getMessage());
             e.printStackTrace();
@@ -80,7 +89,15 @@ public class ElectionsService {
             election.setStatus(newStatus.toLowerCase()); // Convert to lowercase for consistency
 
             // 3. Save the updated election back to the database
-            return electionsRepository.save(election);
+            Elections saved = electionsRepository.save(election);
+            eventPublisher.publishEvent(new ElectionChangedEvent(id));
+
+            // 4. Load the vote dedup index and live tally now rather than on the first vote
+            if ("active".equals(saved.getStatus())) {
+                voteDedupIndex.warm(id);
+                tallyEngine.ensureLoaded(id);
+            }
+            return saved;
         } catch (RuntimeException e) {
             // Re-throw if the election wasn't found
             throw e;
@@ -109,7 +126,9 @@ public class ElectionsService {
             elections.setEnd_time(electionsDetails.getEnd_time());
             elections.setStatus(electionsDetails.getStatus());
 
-            return electionsRepository.save(elections); // Fixed: was incorrectly saving electionsDetails
+            Elections saved = electionsRepository.save(elections); // Fixed: was incorrectly saving electionsDetails
+            eventPublisher.publishEvent(new ElectionChangedEvent(Id));
+            return saved;
         } catch (Exception e) {
             System.err.println("Error updating election with ID " + Id + ": " + e.getMessage());
             e.printStackTrace();
@@ -118,38 +137,14 @@ public class ElectionsService {
     }
 
     // Delete an election (soft delete) with cascade deletion of candidates and
-    // votes
-    public void deleteElections(Long Id) {
-        if (Id == null) {
-            throw new IllegalArgumentException("Election ID cannot be null");
-        }
-        try {
-            System.out.println("Attempting to delete election with ID: " + Id);
-
-            // Find all candidates for this election
-            List<Candidates> candidates = candidatesRepository.findByElections_Id(Id);
-
-            // Delete all votes and candidates for this election
-            for (Candidates candidate : candidates) {
-                // Delete all votes for this candidate
-                votesRepository.deleteByCandidateId(candidate.getCandidateId());
-
-                // Delete the candidate
-                candidatesRepository.delete(candidate);
-            }
-
-            // Mark the election as deleted
-            Elections election = electionsRepository.findById(Id)
-                    .orElseThrow(() -> new RuntimeException("Election not found with ID " + Id));
-
-            election.setDeleted(true);
-            electionsRepository.save(election);
+    // votes. The election is hidden at once and the rest runs in the background;
+    // empty if there is no such election.
+    public Optional<ElectionDeletionStatus> deleteElections(Long Id) {
+        return electionDeleter.requestDeletion(Id);
+    }
 
-            System.out.println("Successfully deleted election with ID " + Id + " and all related candidates and votes");
-        } catch (Exception e) {
-            System.err.println("Error deleting election with ID " + Id + ": " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to delete election: " + e.getMessage(), e);
-        }
+    // Progress of the latest deletion of an election, if there was one since startup
+    public Optional<ElectionDeletionStatus> getDeletionStatus(Long Id) {
+        return electionDeleter.getStatus(Id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * The application's PasswordEncoder: BCrypt, run on a small pool of its own.
+ *
+ * A BCrypt hash or check is tens of milliseconds of pure CPU. Here at most
+ * `workers` of them run at once, however many logins or registrations arrive, so
+ * the rest of the CPU stays free for vote casting. Callers wait for their result;
+ * when the queue in front of the pool is full the call fails at once with
+ * ServiceOverloadedException (503), so no more than workers + queue-capacity
+ * request threads are ever tied up in password work.
+ */
+@Service
+public class PasswordHasher implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means half the CPUs (at least one)
+    @Value("${voting.password.workers:0}")
+    private int workers;
+
+    @Value("${voting.password.queue-capacity:50}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor pool;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        encodeTimer = hashTimer("encode");
+        matchesTimer = hashTimer("matches");
+        rejected = Counter.builder("voting.password.rejected")
+                .description("Password hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("voting.password.queue", pool, p -> p.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("voting.password.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(meterRegistry);
+    }
+
+    private Timer hashTimer(String operation) {
+        return Timer.builder("voting.password.hash")
+                .description("Time to compute a BCrypt hash or check, excluding time queued")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> encodeTimer.record(() -> bcrypt.encode(rawPassword))));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> matchesTimer.record(() -> bcrypt.matches(rawPassword, encodedPassword))));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    /*
+     * Hashes many passwords (bulk registration). At most `workers` of them are in
+     * the queue at any time, so a long list takes turns with interactive logins
+     * instead of filling the queue ahead of them. When logins have filled the queue
+     * the list waits for room rather than failing halfway through.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int chunk = pool.getCorePoolSize();
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += chunk) {
+            List<Future<String>> pending = new ArrayList<>(chunk);
+            for (CharSequence raw : rawPasswords.subList(from, Math.min(from + chunk, rawPasswords.size()))) {
+                pending.add(submitWhenRoom(() -> encodeTimer.record(() -> bcrypt.encode(raw))));
+            }
+            for (Future<String> hash : pending) {
+                hashes.add(await(hash));
+            }
+        }
+        return hashes;
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many logins in progress, please retry shortly", 1);
+        }
+    }
+
+    private <T> Future<T> submitWhenRoom(Callable<T> task) {
+        long backoffMs = 5;
+        while (true) {
+            try {
+                return pool.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (pool.isShutdown()) {
+                    throw new IllegalStateException("Password hashing has stopped", e);
+                }
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting to hash a password", e);
+            }
+            backoffMs = Math.min(backoffMs * 2, 100);
+        }
+    }
+
+    private static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReadRouting;
+import com.example.demo.dto.FinalResults;
+import com.example.demo.dto.TallySnapshot;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.ElectionResults;
+import com.example.demo.model.Elections;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionResultsRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.repository.VotesRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Final results of completed elections.
+ *
+ * When an election closes (ElectionLifecycle), its votes are counted once with a
+ * GROUP BY in a read-only transaction and stored as an immutable election_results
+ * row holding the rendered JSON. The JSON and a CSV rendering are also written to
+ * the results directory, from where they are served with a one-year immutable
+ * Cache-Control, so nothing read after an election closes touches the votes table.
+ * The row is the source of truth: a missing file is written again from it.
+ */
+@Service
+public class ResultsFinalizer {
+
+    public enum Format {
+        JSON("json"),
+        CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown results format: " + value + " (use json or csv)");
+        }
+    }
+
+    @Autowired
+    private ElectionResultsRepository electionResultsRepository;
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
+    @Autowired
+    private CandidatesRepository candidatesRepository;
+
+    @Autowired
+    private VotesRepository votesRepository;
+
+    @Autowired
+    private VoterRepository voterRepository;
+
+    @Autowired
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private VoteIngestionService voteIngestionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${voting.results.dir:results}")
+    private String directory;
+
+    // Ids of elections with final results; loaded on first use
+    private volatile Set<Long> finalized;
+    // Parsed results, filled as they are read
+    private final ConcurrentHashMap<Long, FinalResults> results = new ConcurrentHashMap<>();
+
+    public boolean isFinalized(Long electionId) {
+        return finalizedIds().contains(electionId);
+    }
+
+    /*
+     * Count and store the final results of a completed election. Does nothing if
+     * they already exist, so it is safe to call again after a failure or restart.
+     */
+    public synchronized FinalResults finalizeResults(Long electionId) {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID must not be null");
+        }
+        Optional<FinalResults> existing = getResults(electionId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        Elections election = electionsRepository.findById(electionId)
+                .orElseThrow(() -> new RuntimeException("Election not found with ID " + electionId));
+        if (!ElectionLifecycle.COMPLETED.equalsIgnoreCase(String.valueOf(election.getStatus()).trim())) {
+            throw new IllegalArgumentException("Election " + electionId + " has not closed");
+        }
+
+        // One consistent snapshot for the counts, the voters and the candidates, taken
+        // on the primary: a lagging replica could miss the last votes
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        FinalResults computed = ReadRouting.onPrimary(() -> readOnly.execute(status -> count(election)));
+
+        if (voteIngestionService.isWriteBehind()
+                && computed.totalVotes() < tallyEngine.getSnapshot(electionId).totalVotes()) {
+            // Accepted votes are still queued for the database; the lifecycle retries
+            throw new IllegalStateException("Votes for election " + electionId + " are still being written");
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(computed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize results of election " + electionId, e);
+        }
+        electionResultsRepository.save(new ElectionResults(electionId, computed.finalizedAt(),
+                computed.totalVotes(), computed.ballotsCast(), json));
+        results.put(electionId, computed);
+        finalizedIds().add(electionId);
+        try {
+            writeArtifacts(computed, json);
+        } catch (IOException e) {
+            // Written again from the stored row on first request
+            System.err.println("Failed to write results files of election " + electionId + ": " + e.getMessage());
+        }
+        System.out.println("Finalized results of election " + electionId + ": " + computed.totalVotes()
+                + " votes from " + computed.ballotsCast() + " voters");
+        return computed;
+    }
+
+    public Optional<FinalResults> getResults(Long electionId) {
+        if (!isFinalized(electionId)) {
+            return Optional.empty();
+        }
+        FinalResults cached = results.get(electionId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return electionResultsRepository.findById(electionId).map(row -> {
+            FinalResults parsed = parse(row);
+            results.put(electionId, parsed);
+            return parsed;
+        });
+    }
+
+    // The results file to serve, written from the stored row if it is missing
+    public Optional<Path> artifact(Long electionId, Format format) throws IOException {
+        if (!isFinalized(electionId)) {
+            return Optional.empty();
+        }
+        Path file = artifactPath(electionId, format);
+        if (Files.isRegularFile(file)) {
+            return Optional.of(file);
+        }
+        Optional<ElectionResults> row = electionResultsRepository.findById(electionId);
+        if (row.isEmpty()) {
+            return Optional.empty();
+        }
+        writeArtifacts(parse(row.get()), row.get().getResultsJson());
+        return Optional.of(file);
+    }
+
+    // The election itself is being deleted; its results go with it
+    public synchronized void discard(Long electionId) {
+        if (electionResultsRepository.existsById(electionId)) {
+            electionResultsRepository.deleteById(electionId);
+        }
+        finalizedIds().remove(electionId);
+        results.remove(electionId);
+        for (Format format : Format.values()) {
+            try {
+                Files.deleteIfExists(artifactPath(electionId, format));
+            } catch (IOException e) {
+                System.err.println("Failed to delete results file of election " + electionId + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    private FinalResults count(Elections election) {
+        Long electionId = election.getId();
+        Map<Long, Long> votes = new HashMap<>();
+        for (Object[] row : votesRepository.countVotesPerCandidate(electionId)) {
+            votes.put((Long) row[0], (Long) row[1]);
+        }
+
+        Map<String, List<TallySnapshot.CandidateTally>> byPost = new TreeMap<>();
+        for (Candidates candidate : candidatesRepository.findByElections_Id(electionId)) {
+            TallySnapshot.VoterName voter = candidate.getVoter() == null ? null
+                    : new TallySnapshot.VoterName(candidate.getVoter().getFirstName(),
+                            candidate.getVoter().getLastName());
+            String post = candidate.getPost() != null ? candidate.getPost() : "";
+            byPost.computeIfAbsent(post, p -> new ArrayList<>()).add(new TallySnapshot.CandidateTally(
+                    candidate.getCandidateId(), candidate.getPost(), voter, candidate.getImageUrl(),
+                    votes.getOrDefault(candidate.getCandidateId(), 0L)));
+        }
+
+        List<FinalResults.PostResult> posts = new ArrayList<>(byPost.size());
+        long total = 0;
+        for (Map.Entry<String, List<TallySnapshot.CandidateTally>> entry : byPost.entrySet()) {
+            List<TallySnapshot.CandidateTally> candidates = entry.getValue();
+            // Most votes first, ties in candidate order
+            candidates.sort(Comparator.comparingLong(TallySnapshot.CandidateTally::votes).reversed()
+                    .thenComparing(TallySnapshot.CandidateTally::candidateId));
+            long postTotal = candidates.stream().mapToLong(TallySnapshot.CandidateTally::votes).sum();
+            long top = candidates.isEmpty() ? 0 : candidates.get(0).votes();
+            List<Long> winners = top == 0 ? List.of()
+                    : candidates.stream().filter(c -> c.votes() == top)
+                            .map(TallySnapshot.CandidateTally::candidateId).toList();
+            posts.add(new FinalResults.PostResult(entry.getKey(), postTotal, winners, List.copyOf(candidates)));
+            total += postTotal;
+        }
+
+        long ballotsCast = votesRepository.countVotersByElection(electionId);
+        long registeredVoters = voterRepository.count();
+        double turnout = registeredVoters == 0 ? 0 : (double) ballotsCast / registeredVoters;
+        return new FinalResults(electionId, election.getName(), election.getStart_time(), election.getEnd_time(),
+                Instant.now(), total, ballotsCast, registeredVoters, turnout, List.copyOf(posts));
+    }
+
+    private FinalResults parse(ElectionResults row) {
+        try {
+            return objectMapper.readValue(row.getResultsJson(), FinalResults.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored results of election " + row.getElectionId()
+                    + " cannot be read", e);
+        }
+    }
+
+    private void writeArtifacts(FinalResults finalResults, String json) throws IOException {
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+        write(root, artifactPath(finalResults.electionId(), Format.JSON), json);
+        write(root, artifactPath(finalResults.electionId(), Format.CSV), toCsv(finalResults));
+    }
+
+    // Written under a temporary name so a reader never sees a partial file
+    private static void write(Path root, Path target, String content) throws IOException {
+        Path partial = Files.createTempFile(root, "results-", ".tmp");
+        try {
+            Files.writeString(partial, content, StandardCharsets.UTF_8);
+            try {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private Path artifactPath(Long electionId, Format format) {
+        return Paths.get(directory).resolve("election-" + electionId + "-results." + format.extension());
+    }
+
+    private static String toCsv(FinalResults finalResults) {
+        StringBuilder csv = new StringBuilder("post,candidate_id,first_name,last_name,votes,share,winner\n");
+        for (FinalResults.PostResult post : finalResults.posts()) {
+            for (TallySnapshot.CandidateTally candidate : post.candidates()) {
+                double share = post.totalVotes() == 0 ? 0 : (double) candidate.votes() / post.totalVotes();
+                csv.append(csvField(post.post())).append(',')
+                        .append(candidate.candidateId()).append(',')
+                        .append(csvField(candidate.voter() == null ? null : candidate.voter().firstName())).append(',')
+                        .append(csvField(candidate.voter() == null ? null : candidate.voter().lastName())).append(',')
+                        .append(candidate.votes()).append(',')
+                        .append(String.format(Locale.ROOT, "%.4f", share)).append(',')
+                        .append(post.winners().contains(candidate.candidateId())).append('\n');
+            }
+        }
+        return csv.toString();
+    }
+
+    // RFC 4180: quote fields containing a comma, quote or line break, doubling quotes
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private Set<Long> finalizedIds() {
+        Set<Long> ids = finalized;
+        if (ids == null) {
+            synchronized (this) {
+                if (finalized == null) {
+                    Set<Long> loaded = ConcurrentHashMap.newKeySet();
+                    loaded.addAll(electionResultsRepository.findAllElectionIds());
+                    finalized = loaded;
+                }
+                ids = finalized;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/*
+ * Serves uploaded files (candidate photos and their thumbnails).
+ *
+ * Every response carries an ETag built from the file's size and modification time
+ * and the caller's Cache-Control; a matching If-None-Match gets a 304 without
+ * touching the file. Small files are answered from an in-memory LRU bounded by
+ * total bytes, so a ballot page full of thumbnails costs no disk reads once warm.
+ * Large files go out with Tomcat's sendfile (the kernel copies the file to the
+ * socket) when the connector supports it, and Range requests are answered with
+ * 206 partial content by Spring's Resource handling.
+ */
+@Service
+public class StaticFileServer {
+
+    // Request attributes Tomcat's NIO connector reads to send a file with sendfile()
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${voting.static.cache-max-bytes:67108864}")
+    private long cacheMaxBytes;
+
+    @Value("${voting.static.cache-max-entry-bytes:1048576}")
+    private long cacheMaxEntryBytes;
+
+    // Below this, an ordinary write is as cheap as setting up sendfile
+    @Value("${voting.static.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    private record CachedFile(long size, long lastModified, byte[] bytes) {
+    }
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Path, CachedFile> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    public ResponseEntity<Resource> serve(Path file, CacheControl cacheControl, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!attributes.isRegularFile()) {
+            return ResponseEntity.notFound().build();
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .contentType(contentType);
+
+        if (size <= cacheMaxEntryBytes) {
+            byte[] bytes = cached(file, size, lastModified);
+            if (bytes == null) {
+                bytes = Files.readAllBytes(file);
+                // A file replaced between the stat and the read is not cached under the old stat
+                if (bytes.length == size) {
+                    put(file, new CachedFile(size, lastModified, bytes));
+                }
+            }
+            return ok.body(new ByteArrayResource(bytes));
+        }
+
+        boolean ranged = request.getHeader(HttpHeaders.RANGE) != null;
+        if (!ranged && size >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Headers go straight on the response; Tomcat sends the body after the servlet returns
+            ok.build().getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentLengthLong(size);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return null;
+        }
+        return ok.body(new FileSystemResource(file));
+    }
+
+    private synchronized byte[] cached(Path file, long size, long lastModified) {
+        CachedFile entry = cache.get(file);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.size() != size || entry.lastModified() != lastModified) {
+            cache.remove(file);
+            cachedBytes -= entry.size();
+            return null;
+        }
+        return entry.bytes();
+    }
+
+    private synchronized void put(Path file, CachedFile entry) {
+        CachedFile previous = cache.put(file, entry);
+        cachedBytes += entry.size() - (previous == null ? 0 : previous.size());
+        Iterator<CachedFile> eldest = cache.values().iterator();
+        while (cachedBytes > cacheMaxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    // If-None-Match may list several tags, or be "*"
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TallySnapshot;
+import com.example.demo.exception.ElectionNotFoundException;
+import com.example.demo.model.Candidates;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VotesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Live vote counts per election, kept in memory.
+ *
+ * Each election is seeded once from the database (its candidates plus a count
+ * per candidate) and from then on castVote increments a striped counter for the
+ * candidate. Reads are served from an immutable snapshot that is rebuilt, in
+ * O(candidates), only when the tally version has moved on since the last one.
+ * Every load gets its own epoch (a per-boot nonce and a load counter), so a
+ * version is never mistaken for the same version of an earlier load. Elections
+ * that do not exist or have been deleted throw ElectionNotFoundException.
+ */
+@Service
+public class TallyEngine {
+
+    @Autowired
+    private CandidatesRepository candidatesRepository;
+
+    @Autowired
+    private VotesRepository votesRepository;
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Long, ElectionTally> elections = new ConcurrentHashMap<>();
+    private final String bootNonce = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong loads = new AtomicLong();
+
+    private Timer cachedQueryTimer;
+    private Timer rebuiltQueryTimer;
+
+    @PostConstruct
+    void registerMeters() {
+        cachedQueryTimer = queryTimer("cached");
+        rebuiltQueryTimer = queryTimer("rebuilt");
+    }
+
+    private Timer queryTimer(String snapshot) {
+        return Timer.builder("voting.tally.query")
+                .description("Time to serve an election's tally snapshot")
+                .tag("snapshot", snapshot)
+                .register(meterRegistry);
+    }
+
+    private static final class CandidateCounter {
+        private final Long candidateId;
+        private final LongAdder votes = new LongAdder();
+        private volatile String post;
+        private volatile TallySnapshot.VoterName voter;
+        private volatile String imageUrl;
+
+        CandidateCounter(Long candidateId) {
+            this.candidateId = candidateId;
+        }
+    }
+
+    private static final class ElectionTally {
+        private final Long electionId;
+        private final String epoch;
+        private final ConcurrentHashMap<Long, CandidateCounter> candidates = new ConcurrentHashMap<>();
+        private final AtomicLong version = new AtomicLong();
+        private volatile TallySnapshot snapshot;
+        private volatile boolean loaded;
+
+        ElectionTally(Long electionId, String epoch) {
+            this.electionId = electionId;
+            this.epoch = epoch;
+        }
+    }
+
+    // Make sure the election is seeded. castVote calls this before saving a vote, so a
+    // vote is either in the seed query or counted by recordVote afterwards, never both.
+    public void ensureLoaded(Long electionId) {
+        load(electionId);
+    }
+
+    // Count a vote that has been saved (or accepted by write-behind ingestion)
+    public void recordVote(Long electionId, Long candidateId) {
+        ElectionTally tally = load(electionId);
+        CandidateCounter counter = tally.candidates.get(candidateId);
+        if (counter == null) {
+            // Candidate added after the election was seeded
+            refreshCandidates(tally);
+            counter = tally.candidates.computeIfAbsent(candidateId, CandidateCounter::new);
+        }
+        counter.votes.increment();
+        tally.version.incrementAndGet();
+    }
+
+    // Undo a counted vote when the vote is deleted
+    public void removeVote(Long electionId, Long candidateId) {
+        ElectionTally tally = elections.get(electionId);
+        if (tally == null || !tally.loaded) {
+            return;
+        }
+        CandidateCounter counter = tally.candidates.get(candidateId);
+        if (counter != null) {
+            counter.votes.decrement();
+            tally.version.incrementAndGet();
+        }
+    }
+
+    // Pick up added, edited or deleted candidates without touching the counts
+    public void refreshCandidates(Long electionId) {
+        ElectionTally tally = elections.get(electionId);
+        if (tally != null && tally.loaded) {
+            refreshCandidates(tally);
+        }
+    }
+
+    // Drop an election; it is seeded again from the database on next use
+    public void evict(Long electionId) {
+        elections.remove(electionId);
+    }
+
+    public TallySnapshot getSnapshot(Long electionId) {
+        long start = System.nanoTime();
+        ElectionTally tally = load(electionId);
+        TallySnapshot current = tally.snapshot;
+        long version = tally.version.get();
+        if (current != null && current.version() == version) {
+            cachedQueryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return current;
+        }
+        // Several threads may rebuild the same version at once; any of them is correct
+        TallySnapshot rebuilt = buildSnapshot(tally, version);
+        tally.snapshot = rebuilt;
+        rebuiltQueryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return rebuilt;
+    }
+
+    // Compare the live counts with a fresh GROUP BY over the votes table
+    public Map<String, Object> verify(Long electionId) {
+        TallySnapshot snapshot = getSnapshot(electionId);
+        Map<Long, Long> live = new HashMap<>();
+        for (TallySnapshot.PostTally post : snapshot.posts()) {
+            for (TallySnapshot.CandidateTally candidate : post.candidates()) {
+                live.put(candidate.candidateId(), candidate.votes());
+            }
+        }
+        Map<Long, Long> database = new HashMap<>();
+        for (Object[] row : votesRepository.countVotesPerCandidate(electionId)) {
+            database.put((Long) row[0], (Long) row[1]);
+        }
+
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        TreeSet<Long> ids = new TreeSet<>(live.keySet());
+        ids.addAll(database.keySet());
+        for (Long candidateId : ids) {
+            long liveCount = live.getOrDefault(candidateId, 0L);
+            long databaseCount = database.getOrDefault(candidateId, 0L);
+            if (liveCount != databaseCount) {
+                Map<String, Object> mismatch = new LinkedHashMap<>();
+                mismatch.put("candidateId", candidateId);
+                mismatch.put("live", liveCount);
+                mismatch.put("database", databaseCount);
+                mismatches.add(mismatch);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("electionId", electionId);
+        report.put("epoch", snapshot.epoch());
+        report.put("version", snapshot.version());
+        report.put("liveTotal", snapshot.totalVotes());
+        report.put("databaseTotal", database.values().stream().mapToLong(Long::longValue).sum());
+        report.put("consistent", mismatches.isEmpty());
+        report.put("mismatches", mismatches);
+        return report;
+    }
+
+    private ElectionTally load(Long electionId) {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID must not be null");
+        }
+        // Unknown and deleted elections never get an entry. The check runs inside
+        // computeIfAbsent, so it cannot interleave with ElectionDeleter's evict: either
+        // it sees the election deleted, or its entry is created before the evict.
+        ElectionTally tally = elections.computeIfAbsent(electionId, id -> {
+            if (!electionsRepository.existsByIdAndDeletedFalse(id)) {
+                throw new ElectionNotFoundException(id);
+            }
+            return new ElectionTally(id, bootNonce + "." + loads.incrementAndGet());
+        });
+        if (!tally.loaded) {
+            synchronized (tally) {
+                if (!tally.loaded) {
+                    refreshCandidates(tally);
+                    for (Object[] row : votesRepository.countVotesPerCandidate(electionId)) {
+                        tally.candidates.computeIfAbsent((Long) row[0], CandidateCounter::new)
+                                .votes.add((Long) row[1]);
+                    }
+                    tally.version.incrementAndGet();
+                    tally.loaded = true;
+                }
+            }
+        }
+        return tally;
+    }
+
+    private void refreshCandidates(ElectionTally tally) {
+        synchronized (tally) {
+            List<Candidates> current = candidatesRepository.findByElections_Id(tally.electionId);
+            Map<Long, Candidates> byId = new HashMap<>();
+            for (Candidates candidate : current) {
+                byId.put(candidate.getCandidateId(), candidate);
+                CandidateCounter counter = tally.candidates.computeIfAbsent(candidate.getCandidateId(),
+                        CandidateCounter::new);
+                counter.post = candidate.getPost();
+                counter.imageUrl = candidate.getImageUrl();
+                counter.voter = candidate.getVoter() == null ? null
+                        : new TallySnapshot.VoterName(candidate.getVoter().getFirstName(),
+                                candidate.getVoter().getLastName());
+            }
+            // Candidates deleted since the last refresh take their votes with them
+            tally.candidates.keySet().removeIf(id -> !byId.containsKey(id));
+            tally.version.incrementAndGet();
+        }
+    }
+
+    private static TallySnapshot buildSnapshot(ElectionTally tally, long version) {
+        Map<String, List<TallySnapshot.CandidateTally>> byPost = new TreeMap<>();
+        long total = 0;
+        for (CandidateCounter counter : tally.candidates.values()) {
+            long votes = counter.votes.sum();
+            total += votes;
+            String post = counter.post != null ? counter.post : "";
+            byPost.computeIfAbsent(post, p -> new ArrayList<>()).add(new TallySnapshot.CandidateTally(
+                    counter.candidateId, counter.post, counter.voter, counter.imageUrl, votes));
+        }
+
+        List<TallySnapshot.PostTally> posts = new ArrayList<>(byPost.size());
+        for (Map.Entry<String, List<TallySnapshot.CandidateTally>> entry : byPost.entrySet()) {
+            List<TallySnapshot.CandidateTally> candidates = entry.getValue();
+            candidates.sort(Comparator.comparing(TallySnapshot.CandidateTally::candidateId));
+            long postTotal = candidates.stream().mapToLong(TallySnapshot.CandidateTally::votes).sum();
+            posts.add(new TallySnapshot.PostTally(entry.getKey(), postTotal, List.copyOf(candidates)));
+        }
+        return new TallySnapshot(tally.electionId, tally.epoch, version, Instant.now(), total, List.copyOf(posts));
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TallyDelta;
+import com.example.demo.dto.TallySnapshot;
+import com.example.demo.exception.ServiceOverloadedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Pushes live tally changes to results pages over server-sent events.
+ *
+ * Clients only hold an SseEmitter (an async request), not a thread. One shared
+ * scheduler wakes up every tick, reads each watched election's snapshot from the
+ * TallyEngine, works out which candidates changed since the previous tick and
+ * sends that delta, serialized once, to every client watching the election.
+ * A new client gets the full snapshot first.
+ */
+@Service
+public class TallyStreamService {
+
+    @Autowired
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${voting.tally.stream.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${voting.tally.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${voting.tally.stream.max-clients:10000}")
+    private int maxClients;
+
+    // Send a comment line this often so proxies do not close idle streams
+    @Value("${voting.tally.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    private static final class Channel {
+        private final CopyOnWriteArrayList<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        // Counts as of the last delta sent, by candidate ID
+        private Map<Long, Long> lastCounts;
+        private String lastEpoch;
+        private long lastVersion = -1;
+    }
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger clients = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tally-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        for (Channel channel : channels.values()) {
+            channel.emitters.forEach(SseEmitter::complete);
+        }
+        channels.clear();
+    }
+
+    public SseEmitter subscribe(Long electionId) {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID must not be null");
+        }
+        if (clients.incrementAndGet() > maxClients) {
+            clients.decrementAndGet();
+            throw new ServiceOverloadedException("Too many live result streams, please retry shortly", 5);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Runnable remove = () -> {
+            Channel channel = channels.get(electionId);
+            if (channel != null && channel.emitters.remove(emitter)) {
+                clients.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        try {
+            TallySnapshot snapshot = tallyEngine.getSnapshot(electionId);
+            emitter.send(SseEmitter.event()
+                    .name("snapshot")
+                    .id(snapshot.tag())
+                    .data(objectMapper.writeValueAsString(snapshot)));
+            // Join (or create) the channel in one step with tick's removal of empty
+            // channels, so the emitter never lands on one that has just been dropped
+            channels.compute(electionId, (id, existing) -> {
+                Channel channel = existing != null ? existing : new Channel();
+                channel.emitters.add(emitter);
+                return channel;
+            });
+        } catch (IOException e) {
+            clients.decrementAndGet();
+            emitter.completeWithError(e);
+        } catch (RuntimeException e) {
+            clients.decrementAndGet();
+            throw e;
+        }
+        return emitter;
+    }
+
+    public int getClientCount() {
+        return clients.get();
+    }
+
+    void tick() {
+        try {
+            boolean heartbeat = System.currentTimeMillis() - lastHeartbeat >= heartbeatMs;
+            if (heartbeat) {
+                lastHeartbeat = System.currentTimeMillis();
+            }
+            for (Map.Entry<Long, Channel> entry : channels.entrySet()) {
+                Channel channel = channels.computeIfPresent(entry.getKey(),
+                        (id, current) -> current.emitters.isEmpty() ? null : current);
+                if (channel == null) {
+                    continue;
+                }
+                publish(entry.getKey(), channel, heartbeat);
+            }
+        } catch (RuntimeException e) {
+            // Never let one failure stop the scheduled task
+            System.err.println("Tally stream tick failed: " + e.getMessage());
+        }
+    }
+
+    private void publish(Long electionId, Channel channel, boolean heartbeat) {
+        TallySnapshot snapshot = tallyEngine.getSnapshot(electionId);
+        if (snapshot.version() == channel.lastVersion && snapshot.epoch().equals(channel.lastEpoch)) {
+            if (heartbeat) {
+                broadcast(channel, SseEmitter.event().comment("keep-alive"));
+            }
+            return;
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        List<TallySnapshot.CandidateTally> changed = new ArrayList<>();
+        for (TallySnapshot.PostTally post : snapshot.posts()) {
+            for (TallySnapshot.CandidateTally candidate : post.candidates()) {
+                counts.put(candidate.candidateId(), candidate.votes());
+                Long previous = channel.lastCounts == null ? null : channel.lastCounts.get(candidate.candidateId());
+                if (previous == null || previous != candidate.votes()) {
+                    changed.add(candidate);
+                }
+            }
+        }
+        List<Long> removed = new ArrayList<>();
+        if (channel.lastCounts != null) {
+            for (Long candidateId : channel.lastCounts.keySet()) {
+                if (!counts.containsKey(candidateId)) {
+                    removed.add(candidateId);
+                }
+            }
+        }
+
+        // A reloaded tally starts its versions again; the counts stay comparable
+        long fromVersion = snapshot.epoch().equals(channel.lastEpoch) ? channel.lastVersion : -1;
+        channel.lastCounts = counts;
+        channel.lastEpoch = snapshot.epoch();
+        channel.lastVersion = snapshot.version();
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        TallyDelta delta = new TallyDelta(electionId, fromVersion, snapshot.version(), snapshot.totalVotes(),
+                List.copyOf(changed), List.copyOf(removed));
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            System.err.println("Failed to serialize tally delta for election " + electionId + ": " + e.getMessage());
+            return;
+        }
+        broadcast(channel, SseEmitter.event().name("delta").id(snapshot.tag()).data(json));
+    }
+
+    private void broadcast(Channel channel, SseEmitter.SseEventBuilder event) {
+        // Build the event once; the same frames go to every client
+        Set<ResponseBodyEmitter.DataWithMediaType> frames = event.build();
+        for (SseEmitter emitter : channel.emitters) {
+            try {
+                emitter.send(frames);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; onError/onCompletion removes it
+                emitter.completeWithError(e);
+                if (channel.emitters.remove(emitter)) {
+                    clients.decrementAndGet();
+                }
+            }
+        }
+    }
+}
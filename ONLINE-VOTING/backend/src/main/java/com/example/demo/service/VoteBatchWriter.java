@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Votes;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Writes votes with multi-row INSERT statements (one round trip per chunk). Vote ids
+// are drawn from the same pooled generator Hibernate uses for Votes, so rows written
+// here and rows saved through JPA never collide.
+@Component
+public class VoteBatchWriter {
+
+    // Keep statements well below driver/server limits on placeholders and packet size
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private volatile IdentifierGenerator voteIdGenerator;
+
+    // One transaction, so a ballot split over several statements is still all or nothing
+    @Transactional
+    public void insert(List<VoteJournal.Entry> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        long[] ids = nextVoteIds(rows.size());
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            insertChunk(rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT)), ids, from);
+        }
+    }
+
+    private void insertChunk(List<VoteJournal.Entry> rows, long[] ids, int firstId) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO votes (vote_id, voter_id, candidate_id, election_id, post, timestamp) VALUES ");
+        Object[] args = new Object[rows.size() * 6];
+        int i = 0;
+        int id = firstId;
+        for (VoteJournal.Entry row : rows) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?, ?)");
+            args[i++] = ids[id++];
+            args[i++] = row.voterId();
+            args[i++] = row.candidateId();
+            args[i++] = row.electionId();
+            args[i++] = row.post();
+            args[i++] = Timestamp.valueOf(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(row.timestampMillis()), ZoneId.systemDefault()));
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    // The pooled optimizer only goes to the id_sequences table once per 50 ids, using
+    // its own connection, so this is cheap and safe inside or outside a transaction
+    private long[] nextVoteIds(int count) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = voteIdGenerator;
+        if (generator == null) {
+            generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(Votes.class).getGenerator();
+            voteIdGenerator = generator;
+        }
+        long[] ids = new long[count];
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.VotesRepository;
+import com.example.demo.util.LongHashSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * In-memory record of which voter has voted for which post, per election.
+ *
+ * Each election keeps its (voterId, post) pairs as primitive longs in striped
+ * LongHashSets, so checking and recording a vote is one hash lookup under a
+ * small lock instead of a query. An election is loaded from the votes table the
+ * first time it is needed (or when it is set to active), after which castVote
+ * keeps it up to date. The unique constraint on votes stays as the final guard.
+ */
+@Service
+public class VoteDedupIndex {
+
+    // Low bits of a key hold the post ordinal, the rest the voter id
+    private static final int POST_BITS = 12;
+    private static final int MAX_POSTS = 1 << POST_BITS;
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private VotesRepository votesRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Long, ElectionIndex> elections = new ConcurrentHashMap<>();
+
+    private Timer recordedTimer;
+    private Timer duplicateTimer;
+
+    @PostConstruct
+    void registerMeters() {
+        recordedTimer = checkTimer("recorded");
+        duplicateTimer = checkTimer("duplicate");
+    }
+
+    private Timer checkTimer(String result) {
+        return Timer.builder("voting.dedup.check")
+                .description("Time to check and record a (voter, post) pair in the dedup index")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class ElectionIndex {
+        private final ConcurrentHashMap<String, Integer> postOrdinals = new ConcurrentHashMap<>();
+        private final AtomicInteger nextOrdinal = new AtomicInteger();
+        private final LongHashSet[] stripes = new LongHashSet[STRIPES];
+        private volatile boolean loaded;
+
+        ElectionIndex() {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new LongHashSet();
+            }
+        }
+
+        long key(long voterId, String post) {
+            Integer ordinal = postOrdinals.computeIfAbsent(post, p -> {
+                int next = nextOrdinal.getAndIncrement();
+                if (next >= MAX_POSTS) {
+                    throw new IllegalStateException("Too many posts in one election (max " + MAX_POSTS + ")");
+                }
+                return next;
+            });
+            return (voterId << POST_BITS) | ordinal;
+        }
+
+        LongHashSet stripe(long key) {
+            return stripes[(int) (key ^ (key >>> 32)) & (STRIPES - 1)];
+        }
+
+        boolean add(long key) {
+            LongHashSet stripe = stripe(key);
+            synchronized (stripe) {
+                return stripe.add(key);
+            }
+        }
+
+        boolean remove(long key) {
+            LongHashSet stripe = stripe(key);
+            synchronized (stripe) {
+                return stripe.remove(key);
+            }
+        }
+
+        int size() {
+            int total = 0;
+            for (LongHashSet stripe : stripes) {
+                synchronized (stripe) {
+                    total += stripe.size();
+                }
+            }
+            return total;
+        }
+    }
+
+    // Record that the voter voted for this post. Returns false if they already had.
+    public boolean tryRecord(Long electionId, Long voterId, String post) {
+        long start = System.nanoTime();
+        ElectionIndex index = load(electionId);
+        boolean added = index.add(index.key(voterId, post));
+        (added ? recordedTimer : duplicateTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return added;
+    }
+
+    // Undo tryRecord, e.g. when saving the vote failed or the vote was deleted
+    public void forget(Long electionId, Long voterId, String post) {
+        ElectionIndex index = elections.get(electionId);
+        if (index != null) {
+            index.remove(index.key(voterId, post));
+        }
+    }
+
+    public boolean hasVoted(Long electionId, Long voterId, String post) {
+        ElectionIndex index = load(electionId);
+        long key = index.key(voterId, post);
+        LongHashSet stripe = index.stripe(key);
+        synchronized (stripe) {
+            return stripe.contains(key);
+        }
+    }
+
+    // Load an election ahead of the first vote (e.g. when it is opened)
+    public void warm(Long electionId) {
+        load(electionId);
+    }
+
+    // Forget an election entirely; it is reloaded from the table on next use
+    public void evict(Long electionId) {
+        elections.remove(electionId);
+    }
+
+    public int size(Long electionId) {
+        ElectionIndex index = elections.get(electionId);
+        return index == null ? 0 : index.size();
+    }
+
+    private ElectionIndex load(Long electionId) {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID must not be null");
+        }
+        ElectionIndex index = elections.computeIfAbsent(electionId, id -> new ElectionIndex());
+        if (!index.loaded) {
+            // Votes for this election wait here until the index is complete
+            synchronized (index) {
+                if (!index.loaded) {
+                    List<Object[]> rows = votesRepository.findVoterPostPairsByElection(electionId);
+                    for (Object[] row : rows) {
+                        if (row[0] != null && row[1] != null) {
+                            index.add(index.key((Long) row[0], (String) row[1]));
+                        }
+                    }
+                    index.loaded = true;
+                    System.out.println("Vote dedup index loaded for election " + electionId + ": "
+                            + rows.size() + " vote(s)");
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/*
+ * Streams every vote of an election as CSV or NDJSON.
+ *
+ * Rows are read through a forward-only, read-only cursor with a fetch size (MySQL
+ * needs useCursorFetch=true on the URL to honour it) and each one is written to
+ * the output as soon as it is read, so memory use does not grow with the election.
+ */
+@Service
+public class VoteExporter {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format: " + value + " (use csv or ndjson)");
+        }
+    }
+
+    private static final String SQL = "SELECT v.vote_id, v.voter_id, v.candidate_id, cv.first_name, cv.last_name, "
+            + "v.post, v.timestamp FROM votes v "
+            + "JOIN candidates c ON c.candidate_id = v.candidate_id "
+            + "JOIN voter cv ON cv.id = c.voter_id "
+            + "WHERE v.election_id = ? ORDER BY v.vote_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${voting.export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Writes the export to out and returns the number of votes written
+    public long export(Long electionId, Format format, OutputStream out) throws IOException {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID must not be null");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        // Read-only transaction: one consistent snapshot for the whole export
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long[] count = new long[1];
+        try {
+            readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, electionId);
+                return statement;
+            }, resultSet -> {
+                try {
+                    rows.write(resultSet);
+                    count[0]++;
+                } catch (IOException e) {
+                    // Usually the client went away; stops the query
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rows.finish();
+        writer.flush();
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("vote_id,voter_id,candidate_id,candidate_first_name,candidate_last_name,post,timestamp\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(Long.toString(row.getLong(1)));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong(2)));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong(3)));
+            writer.write(',');
+            writeField(row.getString(4));
+            writer.write(',');
+            writeField(row.getString(5));
+            writer.write(',');
+            writeField(row.getString(6));
+            writer.write(',');
+            Timestamp timestamp = row.getTimestamp(7);
+            if (timestamp != null) {
+                writer.write(timestamp.toLocalDateTime().toString());
+            }
+            writer.write('\n');
+        }
+
+        // RFC 4180: quote fields containing a comma, quote or line break, doubling quotes
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            // One generator for the whole stream, one vote per line
+            this.json = objectMapper.getFactory().createGenerator(writer);
+            json.setRootValueSeparator(null);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("voteId", row.getLong(1));
+            json.writeNumberField("voterId", row.getLong(2));
+            json.writeNumberField("candidateId", row.getLong(3));
+            json.writeStringField("candidateFirstName", row.getString(4));
+            json.writeStringField("candidateLastName", row.getString(5));
+            json.writeStringField("post", row.getString(6));
+            Timestamp timestamp = row.getTimestamp(7);
+            json.writeStringField("timestamp", timestamp == null ? null : timestamp.toLocalDateTime().toString());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+}
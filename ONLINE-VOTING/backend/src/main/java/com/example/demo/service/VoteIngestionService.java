@@ -0,0 +1,422 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ElectionNotFoundException;
+import com.example.demo.exception.ServiceOverloadedException;
+import com.example.demo.model.Candidates;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.repository.VotesRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Write-behind ingestion for votes (voting.ingestion.mode=write-behind).
+ *
+ * An accepted vote is first made durable in the local VoteJournal, then put on a
+ * bounded in-memory queue. A single drainer thread takes votes off the queue and
+ * writes them to the votes table with multi-row INSERT statements, so many votes
+ * share one round trip and one commit. Votes left in the journal after a crash
+ * are replayed on the next start.
+ *
+ * In the default "direct" mode none of this is started and VotesService saves
+ * every vote itself.
+ */
+@Service
+public class VoteIngestionService {
+
+    public static final String MODE_DIRECT = "direct";
+    public static final String MODE_WRITE_BEHIND = "write-behind";
+
+    @Autowired
+    private VoteBatchWriter voteBatchWriter;
+
+    @Autowired
+    private VotesRepository votesRepository;
+
+    @Autowired
+    private CandidatesRepository candidatesRepository;
+
+    @Autowired
+    private VoteDedupIndex voteDedupIndex;
+
+    @Autowired
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private VoterRepository voterRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${voting.ingestion.mode:direct}")
+    private String mode;
+
+    @Value("${voting.ingestion.journal-path:data/vote-journal.log}")
+    private String journalPath;
+
+    @Value("${voting.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${voting.ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${voting.ingestion.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${voting.ingestion.admission-timeout-ms:50}")
+    private long admissionTimeoutMs;
+
+    @Value("${voting.ingestion.journal-timeout-ms:2000}")
+    private long journalTimeoutMs;
+
+    @Value("${voting.ingestion.known-voters-max-entries:100000}")
+    private long knownVotersMaxEntries;
+
+    // A vote waiting to be written
+    private record PendingVote(VoteJournal.Entry entry, long acceptedNanos) {
+    }
+
+    private VoteJournal journal;
+    private ArrayBlockingQueue<PendingVote> queue;
+    private Semaphore capacity;
+    private List<VoteJournal.Entry> recovered = List.of();
+
+    private Thread drainer;
+    private volatile boolean running;
+
+    // Voter ids known to exist. Only hits are kept, so a voter registered a moment ago
+    // is never turned away; VoterService forgets an id when the voter is deleted. A
+    // lookup that raced with a deletion is answered but not kept.
+    private Cache<Long, Boolean> knownVoters;
+    private final AtomicLong voterGeneration = new AtomicLong();
+
+    // Meters, registered only in write-behind mode
+    private Counter acceptedVotes;
+    private Counter rejectedVotes;
+    private Counter replayedVotes;
+    private Counter writtenVotes;
+    private Counter droppedVotes;
+    private DistributionSummary batchSizes;
+    private Timer commitLatency;
+
+    @PostConstruct
+    void start() throws IOException {
+        knownVoters = Caffeine.newBuilder().maximumSize(knownVotersMaxEntries).build();
+        if (!isWriteBehind()) {
+            return;
+        }
+        if (batchSize < 1 || queueCapacity < batchSize) {
+            throw new IllegalStateException("voting.ingestion.queue-capacity must be at least batch-size");
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        capacity = new Semaphore(queueCapacity);
+        registerMeters();
+        DistributionSummary groupSizes = DistributionSummary.builder("voting.ingestion.journal.group.size")
+                .description("Votes made durable by one journal fsync")
+                .register(meterRegistry);
+        Timer syncTimer = Timer.builder("voting.ingestion.journal.sync")
+                .description("Time spent in one journal fsync")
+                .register(meterRegistry);
+        journal = new VoteJournal(Paths.get(journalPath), (records, nanos) -> {
+            groupSizes.record(records);
+            syncTimer.record(nanos, TimeUnit.NANOSECONDS);
+        });
+        recovered = journal.open();
+        Gauge.builder("voting.ingestion.journal.outstanding", journal, VoteJournal::getOutstandingCount)
+                .description("Journaled votes not yet committed to the database")
+                .register(meterRegistry);
+
+        running = true;
+        drainer = new Thread(this::drainLoop, "vote-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        System.out.println("Vote ingestion running in write-behind mode, journal " + journalPath + ", "
+                + recovered.size() + " vote(s) to replay");
+    }
+
+    private void registerMeters() {
+        acceptedVotes = voteCounter("accepted");
+        rejectedVotes = voteCounter("rejected");
+        replayedVotes = voteCounter("replayed");
+        writtenVotes = voteCounter("written");
+        droppedVotes = voteCounter("dropped");
+        Gauge.builder("voting.ingestion.queue.depth", queue, ArrayBlockingQueue::size)
+                .description("Accepted votes waiting for the drainer")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("voting.ingestion.batch.size")
+                .description("Votes written by one INSERT")
+                .register(meterRegistry);
+        commitLatency = Timer.builder("voting.ingestion.commit.latency")
+                .description("Time from accepting a vote to committing it to the database")
+                .register(meterRegistry);
+    }
+
+    private Counter voteCounter(String outcome) {
+        return Counter.builder("voting.ingestion.votes")
+                .description("Write-behind votes, by what happened to them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // The schema only exists once the application is up, so replay waits until then
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        if (!isWriteBehind() || recovered.isEmpty()) {
+            return;
+        }
+        List<VoteJournal.Entry> toReplay = recovered;
+        recovered = List.of();
+
+        List<Long> alreadyCommitted = new ArrayList<>();
+        int requeued = 0;
+        int dropped = 0;
+        for (VoteJournal.Entry entry : toReplay) {
+            // The crash may have happened after the insert but before the checkpoint
+            if (votesRepository.existsByVoter_IdAndCandidate_CandidateId(entry.voterId(), entry.candidateId())) {
+                alreadyCommitted.add(entry.seq());
+                continue;
+            }
+            // Journals written before the post was recorded only carry the candidate
+            if (entry.post() == null || entry.post().isEmpty()) {
+                String post = candidatesRepository.findById(entry.candidateId()).map(Candidates::getPost).orElse(null);
+                entry = new VoteJournal.Entry(entry.seq(), entry.voterId(), entry.candidateId(),
+                        entry.electionId(), post, entry.timestampMillis());
+            }
+            // The election may have been deleted since; its votes went with it
+            try {
+                tallyEngine.ensureLoaded(entry.electionId());
+            } catch (ElectionNotFoundException e) {
+                System.err.println("Dropping journaled vote " + entry + ": " + e.getMessage());
+                alreadyCommitted.add(entry.seq());
+                dropped++;
+                continue;
+            }
+            // The index and tally are loaded from the table, which does not have these votes yet
+            if (entry.post() != null) {
+                voteDedupIndex.tryRecord(entry.electionId(), entry.voterId(), entry.post());
+            }
+            capacity.acquireUninterruptibly();
+            queue.add(new PendingVote(entry, System.nanoTime()));
+            tallyEngine.recordVote(entry.electionId(), entry.candidateId());
+            replayedVotes.increment();
+            requeued++;
+        }
+        if (!alreadyCommitted.isEmpty()) {
+            journal.markCommitted(alreadyCommitted);
+        }
+        System.out.println("Vote journal replay: " + requeued + " re-queued, "
+                + (alreadyCommitted.size() - dropped) + " already in the database, " + dropped + " dropped");
+    }
+
+    public boolean isWriteBehind() {
+        return MODE_WRITE_BEHIND.equalsIgnoreCase(mode);
+    }
+
+    // A write-behind vote is accepted before its row exists, so a vote from an unknown
+    // voter would only fail later in the drainer. Checked here instead, before submitAll.
+    public void requireVoter(Long voterId) {
+        if (knownVoters.getIfPresent(voterId) != null) {
+            return;
+        }
+        long generation = voterGeneration.get();
+        if (!voterRepository.existsById(voterId)) {
+            throw new IllegalArgumentException("Voter not found with ID: " + voterId);
+        }
+        if (voterGeneration.get() == generation) {
+            knownVoters.put(voterId, Boolean.TRUE);
+        }
+    }
+
+    public void forgetVoter(Long voterId) {
+        voterGeneration.incrementAndGet();
+        knownVoters.invalidate(voterId);
+    }
+
+    // Accept votes (a single vote or a whole ballot): they are admitted, journaled and
+    // fsync'ed as one unit, so either all of them are accepted or none is. Returns once
+    // they are in the journal; the rows are written to the database later by the drainer.
+    public void submitAll(List<VoteJournal.Entry> votes) {
+        if (!isWriteBehind()) {
+            throw new IllegalStateException("Vote ingestion is not in write-behind mode");
+        }
+        if (votes.size() > queueCapacity) {
+            throw new IllegalArgumentException("Too many votes in one submission");
+        }
+
+        boolean admitted = false;
+        try {
+            admitted = capacity.tryAcquire(votes.size(), admissionTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!admitted) {
+            rejectedVotes.increment(votes.size());
+            throw new ServiceOverloadedException("Vote queue is full, please retry shortly", 1);
+        }
+
+        long acceptedNanos = System.nanoTime();
+        CompletableFuture<List<VoteJournal.Entry>> append = journal.append(votes);
+        List<VoteJournal.Entry> journaled;
+        try {
+            journaled = append.get(journalTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // The caller is told the vote failed, so if the write still lands later it
+            // must not be replayed: mark it done straight away
+            append.thenAccept(late -> journal.markCommitted(late.stream().map(VoteJournal.Entry::seq).toList()));
+            capacity.release(votes.size());
+            throw new RuntimeException("Failed to record vote: " + e.getMessage(), e);
+        }
+
+        // Capacity was reserved above, so this never blocks
+        for (VoteJournal.Entry entry : journaled) {
+            queue.add(new PendingVote(entry, acceptedNanos));
+        }
+        acceptedVotes.increment(votes.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!isWriteBehind() || drainer == null) {
+            return;
+        }
+        // Let the drainer empty the queue; whatever is left stays in the journal
+        running = false;
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    private void drainLoop() {
+        List<PendingVote> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingVote first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingVote> batch) throws InterruptedException {
+        // Rows neither written nor dropped yet; only these are retried
+        List<PendingVote> pending = new ArrayList<>(batch);
+        boolean oneByOne = false;
+        long backoffMs = 100;
+        while (!pending.isEmpty()) {
+            try {
+                if (oneByOne) {
+                    insertOneByOne(pending);
+                } else {
+                    insertRows(pending);
+                    complete(pending);
+                    pending.clear();
+                }
+            } catch (DataIntegrityViolationException e) {
+                // One bad row (e.g. a deleted candidate) must not sink the whole batch
+                oneByOne = true;
+            } catch (DataAccessException e) {
+                if (!running) {
+                    // Shutting down: the votes are still in the journal and will be replayed
+                    System.err.println("Vote drainer stopping with " + pending.size()
+                            + " unwritten vote(s) left in the journal: " + e.getMessage());
+                    queue.clear();
+                    return;
+                }
+                System.err.println("Vote batch insert failed, retrying in " + backoffMs + "ms: " + e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, 5000);
+            }
+        }
+    }
+
+    private void insertRows(List<PendingVote> rows) {
+        List<VoteJournal.Entry> entries = new ArrayList<>(rows.size());
+        for (PendingVote row : rows) {
+            entries.add(row.entry());
+        }
+        voteBatchWriter.insert(entries);
+        writtenVotes.increment(rows.size());
+        batchSizes.record(rows.size());
+    }
+
+    // Writes the rows one at a time, taking each out of the list once it is done. Only
+    // a row the database refuses outright is dropped; any other failure is thrown with
+    // the remaining rows still in the list (and still outstanding in the journal).
+    private void insertOneByOne(List<PendingVote> rows) {
+        List<PendingVote> done = new ArrayList<>();
+        Iterator<PendingVote> it = rows.iterator();
+        try {
+            while (it.hasNext()) {
+                PendingVote row = it.next();
+                try {
+                    insertRows(List.of(row));
+                } catch (DataIntegrityViolationException e) {
+                    droppedVotes.increment();
+                    VoteJournal.Entry entry = row.entry();
+                    voteDedupIndex.forget(entry.electionId(), entry.voterId(), entry.post());
+                    tallyEngine.removeVote(entry.electionId(), entry.candidateId());
+                    System.err.println("Dropping journaled vote " + entry + ": " + e.getMessage());
+                }
+                done.add(row);
+                it.remove();
+            }
+        } finally {
+            if (!done.isEmpty()) {
+                complete(done);
+            }
+        }
+    }
+
+    private void complete(List<PendingVote> batch) {
+        long now = System.nanoTime();
+        List<Long> seqs = new ArrayList<>(batch.size());
+        for (PendingVote row : batch) {
+            commitLatency.record(now - row.acceptedNanos(), TimeUnit.NANOSECONDS);
+            seqs.add(row.entry().seq());
+        }
+        capacity.release(batch.size());
+        journal.markCommitted(seqs);
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/*
+ * Append-only journal for accepted votes in write-behind mode.
+ *
+ * Every append is written by a single writer thread, which takes whatever
+ * appends are waiting, writes them in one go and calls fsync once for the whole
+ * group. Callers get a future that completes when their votes are on disk.
+ *
+ * Once the drainer has committed votes to the database it reports their sequence
+ * numbers here, and the journal writes a checkpoint with the highest sequence
+ * below which everything is committed. On startup everything after the last
+ * checkpoint is handed back for replay.
+ */
+public class VoteJournal {
+
+    private static final byte RECORD_VOTE = 1;
+    private static final byte RECORD_CHECKPOINT = 2;
+
+    // type(1) + seq(8) + voterId(8) + candidateId(8) + electionId(8) + timestamp(8) + postLength(2),
+    // followed by the UTF-8 post and a crc(4) over everything before it
+    static final int HEADER_SIZE = 43;
+    private static final int CRC_SIZE = 4;
+
+    // Truncate the file once everything in it is committed and it has grown past this
+    private static final long COMPACT_THRESHOLD_BYTES = 4L * 1024 * 1024;
+
+    private static final int MAX_GROUP_SIZE = 1024;
+
+    public record Entry(long seq, long voterId, long candidateId, long electionId, String post,
+            long timestampMillis) {
+    }
+
+    // Told about every fsync of a group of votes, e.g. to record it as a metric
+    public interface SyncListener {
+        void synced(int records, long nanos);
+    }
+
+    private record Request(List<Entry> votes, long checkpointSeq, CompletableFuture<List<Entry>> done) {
+    }
+
+    private final Path path;
+    private final LinkedBlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final ConcurrentSkipListSet<Long> outstanding = new ConcurrentSkipListSet<>();
+
+    private FileChannel channel;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Written only by the writer thread
+    private long nextSeq = 1;
+    private volatile long lastAssignedSeq = 0;
+    private long lastCheckpointSeq = 0;
+
+    private final SyncListener syncListener;
+
+    public VoteJournal(Path path) {
+        this(path, (records, nanos) -> {
+        });
+    }
+
+    public VoteJournal(Path path, SyncListener syncListener) {
+        this.path = path;
+        this.syncListener = syncListener;
+    }
+
+    // Open the journal, recover its contents and start the writer thread.
+    // Returns the votes that were journaled but not checkpointed as committed.
+    public synchronized List<Entry> open() throws IOException {
+        if (channel != null) {
+            throw new IllegalStateException("Journal already open");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        List<Entry> uncommitted = recover();
+
+        running = true;
+        writer = new Thread(this::writeLoop, "vote-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return uncommitted;
+    }
+
+    // Append votes (their seq is ignored and assigned here). The future completes
+    // with the sequenced entries once they have been fsync'ed.
+    public CompletableFuture<List<Entry>> append(List<Entry> votes) {
+        CompletableFuture<List<Entry>> done = new CompletableFuture<>();
+        if (!running) {
+            done.completeExceptionally(new IllegalStateException("Vote journal is not open"));
+            return done;
+        }
+        requests.add(new Request(votes, 0, done));
+        return done;
+    }
+
+    // Tell the journal these sequence numbers are now in the database
+    public void markCommitted(List<Long> seqs) {
+        // Read the last assigned seq before looking at the outstanding set: every seq up
+        // to it was added to the set first, so anything missing from the set is committed.
+        long assigned = lastAssignedSeq;
+        outstanding.removeAll(seqs);
+        long watermark = assigned;
+        if (!outstanding.isEmpty()) {
+            watermark = Math.min(watermark, outstanding.first() - 1);
+        }
+        if (running) {
+            requests.add(new Request(null, watermark, null));
+        }
+    }
+
+    // Stop the writer after everything already queued has been written
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        // No interrupt here: interrupting a thread inside FileChannel I/O closes the channel.
+        // The writer notices within one poll interval and drains what is queued.
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close vote journal: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    private List<Entry> recover() throws IOException {
+        List<Entry> votes = new ArrayList<>();
+        long checkpoint = 0;
+        long maxSeq = 0;
+        long validLength = 0;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.position(0);
+        while (true) {
+            // A short read means end of file, or a torn record from a crash mid-write
+            if (!readFully(header.clear())) {
+                break;
+            }
+            int postLength = header.getShort(HEADER_SIZE - 2) & 0xFFFF;
+            ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + postLength + CRC_SIZE);
+            record.put(header.flip());
+            if (!readFully(record)) {
+                break;
+            }
+            if (!checksumMatches(record)) {
+                break;
+            }
+            byte type = record.get(0);
+            long seq = record.getLong(1);
+            if (type == RECORD_VOTE) {
+                String post = new String(record.array(), HEADER_SIZE, postLength, StandardCharsets.UTF_8);
+                votes.add(new Entry(seq, record.getLong(9), record.getLong(17), record.getLong(25), post,
+                        record.getLong(33)));
+            } else if (type == RECORD_CHECKPOINT) {
+                checkpoint = Math.max(checkpoint, seq);
+            } else {
+                break;
+            }
+            maxSeq = Math.max(maxSeq, seq);
+            validLength += record.capacity();
+        }
+
+        // Drop anything after the last good record so new appends start clean
+        if (validLength < channel.size()) {
+            System.err.println("Vote journal: discarding " + (channel.size() - validLength)
+                    + " bytes of incomplete data at the end of " + path);
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+
+        final long committed = checkpoint;
+        votes.removeIf(entry -> entry.seq() <= committed);
+        for (Entry entry : votes) {
+            outstanding.add(entry.seq());
+        }
+        nextSeq = maxSeq + 1;
+        lastAssignedSeq = maxSeq;
+        lastCheckpointSeq = checkpoint;
+        return votes;
+    }
+
+    private void writeLoop() {
+        List<Request> group = new ArrayList<>();
+        while (running || !requests.isEmpty()) {
+            try {
+                Request first = requests.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                requests.drainTo(group, MAX_GROUP_SIZE - 1);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                for (Request request : group) {
+                    if (request.done() != null) {
+                        request.done().completeExceptionally(e);
+                    }
+                }
+                System.err.println("Vote journal write failed: " + e.getMessage());
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void writeGroup(List<Request> group) throws IOException {
+        int bytes = 0;
+        for (Request request : group) {
+            if (request.votes() == null) {
+                bytes += HEADER_SIZE + CRC_SIZE;
+                continue;
+            }
+            for (Entry vote : request.votes()) {
+                bytes += HEADER_SIZE + postBytes(vote.post()).length + CRC_SIZE;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        List<List<Entry>> sequenced = new ArrayList<>(group.size());
+        long checkpoint = lastCheckpointSeq;
+        int voteRecords = 0;
+
+        for (Request request : group) {
+            if (request.votes() == null) {
+                if (request.checkpointSeq() > checkpoint) {
+                    checkpoint = request.checkpointSeq();
+                    putRecord(buffer, RECORD_CHECKPOINT, checkpoint, 0, 0, 0, 0, new byte[0]);
+                }
+                sequenced.add(null);
+                continue;
+            }
+            List<Entry> entries = new ArrayList<>(request.votes().size());
+            for (Entry vote : request.votes()) {
+                long seq = nextSeq++;
+                outstanding.add(seq);
+                entries.add(new Entry(seq, vote.voterId(), vote.candidateId(), vote.electionId(), vote.post(),
+                        vote.timestampMillis()));
+                putRecord(buffer, RECORD_VOTE, seq, vote.voterId(), vote.candidateId(), vote.electionId(),
+                        vote.timestampMillis(), postBytes(vote.post()));
+            }
+            voteRecords += entries.size();
+            lastAssignedSeq = nextSeq - 1;
+            sequenced.add(entries);
+        }
+
+        long groupStart = channel.position();
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (voteRecords > 0) {
+                long start = System.nanoTime();
+                channel.force(false);
+                syncListener.synced(voteRecords, System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            // The callers are told their votes were not accepted, so make sure a partial
+            // write cannot come back as a replayed vote after a restart
+            for (List<Entry> entries : sequenced) {
+                if (entries != null) {
+                    entries.forEach(entry -> outstanding.remove(entry.seq()));
+                }
+            }
+            try {
+                channel.truncate(groupStart);
+                channel.position(groupStart);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+        lastCheckpointSeq = checkpoint;
+
+        for (int i = 0; i < group.size(); i++) {
+            Request request = group.get(i);
+            if (request.done() != null) {
+                request.done().complete(sequenced.get(i));
+            }
+        }
+
+        // Everything in the file is committed: start again from an empty file
+        if (lastCheckpointSeq >= lastAssignedSeq && requests.isEmpty()
+                && channel.size() > COMPACT_THRESHOLD_BYTES) {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(false);
+        }
+    }
+
+    private static void putRecord(ByteBuffer buffer, byte type, long seq, long voterId, long candidateId,
+            long electionId, long timestampMillis, byte[] post) {
+        int start = buffer.position();
+        buffer.put(type);
+        buffer.putLong(seq);
+        buffer.putLong(voterId);
+        buffer.putLong(candidateId);
+        buffer.putLong(electionId);
+        buffer.putLong(timestampMillis);
+        buffer.putShort((short) post.length);
+        buffer.put(post);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start, buffer.position() - start);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private static byte[] postBytes(String post) {
+        byte[] bytes = post == null ? new byte[0] : post.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Post name too long for the vote journal");
+        }
+        return bytes;
+    }
+
+    private boolean readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean checksumMatches(ByteBuffer record) {
+        int crcAt = record.capacity() - CRC_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, crcAt);
+        return (int) crc.getValue() == record.getInt(crcAt);
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReadRouting;
+import com.example.demo.dto.VoterImportReport;
+import com.example.demo.model.Voter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Imports voters from a CSV file (e.g. the student body).
+ *
+ * The file is read a row at a time, with a header naming the columns firstName,
+ * lastName, email, universityId and password in any order. Duplicates are caught
+ * before anything is written: the emails and university IDs already registered
+ * are loaded into hash sets once, and every accepted row adds its own. Accepted
+ * rows are collected into batches; each batch has its passwords hashed on the
+ * PasswordHasher pool (waiting its turn when logins keep the pool busy) and is
+ * inserted with batched INSERTs in one transaction.
+ * A bad row is reported with its line number and does not stop the import.
+ */
+@Service
+public class VoterImporter {
+
+    private static final List<String> COLUMNS = List.of("firstName", "lastName", "email", "universityId",
+            "password");
+
+    // BCrypt only looks at the first 72 bytes, and Spring's encoder refuses longer passwords
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    @Autowired
+    private VoterService voterService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${voting.voters.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${voting.voters.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // A row that passed validation, waiting for its batch
+    private record PendingRow(long line, Voter voter, String password) {
+    }
+
+    // Counts and errors of one import
+    private final class Progress {
+        long rows;
+        long imported;
+        long failed;
+        final List<VoterImportReport.RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new VoterImportReport.RowError(line, message));
+            }
+        }
+    }
+
+    public VoterImportReport importCsv(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        int[] columns = columnIndexes(header);
+
+        Set<String> emails = new HashSet<>();
+        Set<String> universityIds = new HashSet<>();
+        loadRegistered(emails, universityIds);
+
+        Progress progress = new Progress();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            long line = csv.recordLine();
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // empty line
+            }
+            progress.rows++;
+            PendingRow row = validate(line, record, columns, emails, universityIds, progress);
+            if (row != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    save(batch, progress);
+                    batch.clear();
+                }
+            }
+        }
+        save(batch, progress);
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = progress.rows * 1e9 / Math.max(1, elapsedNanos);
+        System.out.printf("Voter import: %d rows, %d imported, %d failed in %d ms (%.0f rows/s)%n",
+                progress.rows, progress.imported, progress.failed, elapsedNanos / 1_000_000, rowsPerSecond);
+        return new VoterImportReport(progress.rows, progress.imported, progress.failed,
+                List.copyOf(progress.errors), progress.failed > progress.errors.size(),
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    private static int[] columnIndexes(List<String> header) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byName.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] indexes = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer index = byName.get(COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new IllegalArgumentException("Missing column '" + COLUMNS.get(i) + "' (the header must name "
+                        + String.join(", ", COLUMNS) + ")");
+            }
+            indexes[i] = index;
+        }
+        return indexes;
+    }
+
+    // Emails and university IDs already in the voter table, folded like Voter.loginKey
+    private void loadRegistered(Set<String> emails, Set<String> universityIds) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // From the primary: a lagging replica would miss voters registered a moment ago
+        ReadRouting.onPrimary(() -> readOnly.executeWithoutResult(status -> jdbcTemplate.query(
+                "SELECT email, university_id FROM voter",
+                resultSet -> {
+                    if (resultSet.getString(1) != null) {
+                        emails.add(fold(resultSet.getString(1)));
+                    }
+                    if (resultSet.getString(2) != null) {
+                        universityIds.add(fold(resultSet.getString(2)));
+                    }
+                })));
+    }
+
+    private static PendingRow validate(long line, List<String> record, int[] columns, Set<String> emails,
+            Set<String> universityIds, Progress progress) {
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String value = columns[i] < record.size() ? record.get(columns[i]).trim() : "";
+            if (value.isEmpty()) {
+                progress.fail(line, "Missing " + COLUMNS.get(i));
+                return null;
+            }
+            values[i] = value;
+        }
+        String email = values[2];
+        String universityId = values[3];
+        String password = values[4];
+        if (email.indexOf('@') < 1) {
+            progress.fail(line, "Not an email address: " + email);
+            return null;
+        }
+        if (password.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            progress.fail(line, "Password is longer than " + MAX_PASSWORD_BYTES + " bytes");
+            return null;
+        }
+        if (emails.contains(fold(email))) {
+            progress.fail(line, "Email is already registered or earlier in the file: " + email);
+            return null;
+        }
+        if (!universityIds.add(fold(universityId))) {
+            progress.fail(line, "University ID is already registered or earlier in the file: " + universityId);
+            return null;
+        }
+        emails.add(fold(email));
+
+        Voter voter = new Voter(values[0], values[1], email, universityId, null, null);
+        voter.setApproved(true);
+        return new PendingRow(line, voter, password);
+    }
+
+    private void save(List<PendingRow> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> hashes = passwordHasher.encodeAll(batch.stream().map(PendingRow::password).toList());
+        List<Voter> voters = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).voter().setPasswordHash(hashes.get(i));
+            voters.add(batch.get(i).voter());
+        }
+        try {
+            voterService.saveImported(voters);
+            progress.imported += voters.size();
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of these voters since the sets were loaded, or the
+            // database compares them differently; find the rows one at a time
+            for (PendingRow row : batch) {
+                row.voter().setId(null);
+                try {
+                    voterService.saveImported(List.of(row.voter()));
+                    progress.imported++;
+                } catch (DataIntegrityViolationException rowError) {
+                    progress.fail(row.line(), "Email or university ID already registered");
+                }
+            }
+        }
+    }
+
+    private static String fold(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * RFC 4180 records: fields separated by commas, optionally in double quotes, with
+     * "" for a quote inside a quoted field. Quoted fields may span lines.
+     */
+    private static final class CsvReader {
+        private final Reader reader;
+        private long line = 1;
+        private long recordLine;
+        private int peeked = -2;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        // Line the last record returned by next() started on
+        long recordLine() {
+            return recordLine;
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    if (peek() == '\n') {
+                        read();
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (peeked != -2) {
+                c = peeked;
+                peeked = -2;
+            } else {
+                c = reader.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = reader.read();
+            }
+            return peeked;
+        }
+    }
+}
@@ -1,13 +1,31 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.VoterPage;
+import com.example.demo.dto.VoterSummary;
+import com.example.demo.event.CandidatesChangedEvent;
 import com.example.demo.model.Voter;
 import com.example.demo.repository.VoterRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class VoterService {
@@ -16,7 +34,87 @@ public class VoterService {
     private VoterRepository voterRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    // A voter's name is shown on the ballot of any election they stand in
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private VoteIngestionService voteIngestionService;
+
+    @Value("${voting.voters.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${voting.voters.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${voting.login.cache-ttl-ms:120000}")
+    private long loginCacheTtlMs;
+
+    // Shorter, so a voter registered moments after a failed attempt is not kept out long
+    @Value("${voting.login.negative-cache-ttl-ms:15000}")
+    private long loginNegativeCacheTtlMs;
+
+    @Value("${voting.login.cache-max-entries:100000}")
+    private long loginCacheMaxEntries;
+
+    // Recent login lookups by login key, found or not. Names are still compared on
+    // every attempt; the cache only saves the query. Entries are dropped when a voter
+    // with that key is saved or deleted.
+    private Cache<String, List<Voter>> loginLookups;
+    private final AtomicLong loginGeneration = new AtomicLong();
+    private Counter loginCacheHits;
+    private Counter loginDatabaseLookups;
+
+    // Voter count for the admin list, kept until a voter is added or deleted. A count
+    // taken while the generation moved on is not reused.
+    private final AtomicLong countGeneration = new AtomicLong();
+    private volatile CachedCount cachedCount;
+
+    private record CachedCount(long generation, long count) {
+    }
+
+    @PostConstruct
+    void createLoginCache() {
+        loginLookups = Caffeine.newBuilder()
+                .maximumSize(loginCacheMaxEntries)
+                .expireAfter(new Expiry<String, List<Voter>>() {
+                    @Override
+                    public long expireAfterCreate(String key, List<Voter> voters, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(
+                                voters.isEmpty() ? loginNegativeCacheTtlMs : loginCacheTtlMs);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, List<Voter> voters, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, voters, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, List<Voter> voters, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        loginCacheHits = loginLookupCounter("cache");
+        loginDatabaseLookups = loginLookupCounter("database");
+    }
+
+    private Counter loginLookupCounter(String source) {
+        return Counter.builder("voting.login.lookups")
+                .description("Voter login lookups, by where the answer came from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
 
     /*
      * Saves a new Voter to the database using the plaintext password.
@@ -26,14 +124,26 @@ public class VoterService {
         String plaintextPassword = voter.getPasswordHash();
 
         // 2. HASH THE PASSWORD using the injected PasswordEncoder
-        String hashedPassword = passwordEncoder.encode(plaintextPassword);
+        String hashedPassword = passwordHasher.encode(plaintextPassword);
 
         // 3. Store the HASHED password back into the voter object
         voter.setPasswordHash(hashedPassword);
         voter.setApproved(true); // Voters registered by admin can log in immediately
 
         // 4. Save the secured voter object to the database
-        return voterRepository.save(voter);
+        Voter saved = voterRepository.save(voter);
+        votersAddedOrRemoved();
+        loginKeyChanged(saved.getLoginKey());
+        return saved;
+    }
+
+    // Saves voters whose passwords are already hashed (see VoterImporter), in one transaction
+    @Transactional
+    public List<Voter> saveImported(List<Voter> voters) {
+        List<Voter> saved = voterRepository.saveAll(voters);
+        votersAddedOrRemoved();
+        saved.forEach(voter -> loginKeyChanged(voter.getLoginKey()));
+        return saved;
     }
 
     // --- NEW METHOD FOR UPDATING VOTER (ISSUE 3) ---
@@ -48,6 +158,7 @@ public class VoterService {
         try {
             Voter existingVoter = voterRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Voter not found with ID: " + id));
+            String previousLoginKey = existingVoter.getLoginKey();
 
             // Update required fields
             existingVoter.setFirstName(voterDetails.getFirstName());
@@ -61,12 +172,16 @@ public class VoterService {
             String newPassword = voterDetails.getPasswordHash();
             if (newPassword != null && !newPassword.trim().isEmpty()) {
                 // Hash the new plaintext password before saving
-                String hashedPassword = passwordEncoder.encode(newPassword);
+                String hashedPassword = passwordHasher.encode(newPassword);
                 existingVoter.setPasswordHash(hashedPassword);
             }
             // Note: If newPassword is null/empty, the existing hash remains untouched.
 
-            return voterRepository.save(existingVoter);
+            Voter saved = voterRepository.save(existingVoter);
+            loginKeyChanged(previousLoginKey);
+            loginKeyChanged(Voter.loginKey(saved.getUniversityId(), saved.getEmail()));
+            eventPublisher.publishEvent(new CandidatesChangedEvent(null));
+            return saved;
         } catch (RuntimeException e) {
             throw e; // Re-throw 'Voter not found'
         } catch (Exception e) {
@@ -84,10 +199,12 @@ public class VoterService {
         try {
             // Check existence and throw a specific error if not found (better UX/API
             // response)
-            if (!voterRepository.existsById(id)) {
-                throw new RuntimeException("Voter not found with ID: " + id);
-            }
-            voterRepository.deleteById(id);
+            Voter voter = voterRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Voter not found with ID: " + id));
+            voterRepository.delete(voter);
+            voteIngestionService.forgetVoter(id);
+            votersAddedOrRemoved();
+            loginKeyChanged(voter.getLoginKey());
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
@@ -96,9 +213,61 @@ public class VoterService {
         }
     }
 
-    // ... rest of the methods remain the same ...
-    public List<Voter> getAllVotersOrdered() {
-        return voterRepository.findAllByOrderByIdAsc();
+    /*
+     * One page of voters in id order, starting after the given id (null for the
+     * first page). size falls back to voting.voters.page-size and is capped at
+     * voting.voters.max-page-size.
+     */
+    public VoterPage getVoterPage(Long after, Integer size, boolean includeTotal) {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        // Counted before the page and outside its transaction, so the cached count
+        // always comes from the primary
+        Long total = includeTotal ? countVoters() : null;
+
+        // One extra row tells us whether there is a next page. Read-only, so the
+        // read replica serves it when one is configured.
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Limit limit = Limit.of(pageSize + 1);
+        List<VoterSummary> rows = readOnly.execute(
+                status -> voterRepository.findSummariesAfter(after == null ? 0L : after, limit));
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).id();
+        }
+        return new VoterPage(List.copyOf(rows), nextCursor, total);
+    }
+
+    // Total number of voters, counted at most once per change to the voter table
+    public long countVoters() {
+        long generation = countGeneration.get();
+        CachedCount cached = cachedCount;
+        if (cached != null && cached.generation() == generation) {
+            return cached.count();
+        }
+        long count = voterRepository.count();
+        cachedCount = new CachedCount(generation, count);
+        return count;
+    }
+
+    private void votersAddedOrRemoved() {
+        countGeneration.incrementAndGet();
+        // Inside a transaction the change is not visible yet; a count taken before the
+        // commit must not survive it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    countGeneration.incrementAndGet();
+                }
+            });
+        }
     }
 
     public Optional<Voter> getByFirstNameAndEmail(String firstName, String email) {
@@ -107,19 +276,52 @@ public class VoterService {
 
     public Optional<Voter> getByCredentials(String firstName, String lastName, String email,
             String universityId) {
-        // Find by university ID (unique identifier)
-        Voter voter = voterRepository.findByUniversityId(universityId);
-
-        if (voter != null &&
-                voter.getFirstName().trim().equalsIgnoreCase(firstName.trim()) &&
-                voter.getLastName().trim().equalsIgnoreCase(lastName.trim()) &&
-                voter.getEmail().trim().equalsIgnoreCase(email.trim())) {
-            return Optional.of(voter);
+        String loginKey = Voter.loginKey(universityId, email);
+        if (loginKey == null || firstName == null || lastName == null) {
+            return Optional.empty();
+        }
+        List<Voter> voters = loginLookups.getIfPresent(loginKey);
+        if (voters != null) {
+            loginCacheHits.increment();
+        } else {
+            // A lookup that raced with a save of the same key is answered but not kept
+            long generation = loginGeneration.get();
+            voters = List.copyOf(voterRepository.findByLoginKey(loginKey));
+            loginDatabaseLookups.increment();
+            if (loginGeneration.get() == generation) {
+                loginLookups.put(loginKey, voters);
+            }
         }
 
+        // The key already matched university ID and email; the names must match too
+        for (Voter voter : voters) {
+            if (voter.getFirstName() != null && voter.getLastName() != null &&
+                    voter.getFirstName().trim().equalsIgnoreCase(firstName.trim()) &&
+                    voter.getLastName().trim().equalsIgnoreCase(lastName.trim())) {
+                return Optional.of(voter);
+            }
+        }
         return Optional.empty();
     }
 
+    private void loginKeyChanged(String loginKey) {
+        if (loginKey == null) {
+            return;
+        }
+        loginGeneration.incrementAndGet();
+        loginLookups.invalidate(loginKey);
+        // As with the count: a lookup made before the commit must not outlive it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    loginGeneration.incrementAndGet();
+                    loginLookups.invalidate(loginKey);
+                }
+            });
+        }
+    }
+
     public Voter setApproval(Long id, boolean approved) {
         if (id == null) {
             throw new IllegalArgumentException("Voter ID must not be null");
@@ -128,6 +330,8 @@ public class VoterService {
         Voter v = voterRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Voter not found: " + id));
         v.setApproved(approved);
-        return voterRepository.save(v);
+        Voter saved = voterRepository.save(v);
+        loginKeyChanged(saved.getLoginKey());
+        return saved;
     }
 }
\ No newline at end of file
@@ -1,13 +1,33 @@
 package com.example.demo.service;
 
-import com.example.demo.model.Elections;
+import com.example.demo.dto.BallotReceipt;
+import com.example.demo.dto.BallotRequest;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.dto.FinalResults;
+import com.example.demo.dto.TallySnapshot;
+import com.example.demo.dto.VoteReceipt;
+import com.example.demo.exception.DuplicateVoteException;
+import com.example.demo.exception.ServiceOverloadedException;
 import com.example.demo.model.Votes;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
 import com.example.demo.repository.VotesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class VotesService {
@@ -15,46 +35,224 @@ public class VotesService {
     @Autowired
     private VotesRepository votesRepository;
 
-    // Cast a vote
-    public Votes castVote(Votes vote) {
-        // Handle potential null objects
-        if (vote.getVoter() == null || vote.getCandidate() == null) {
-            throw new IllegalArgumentException("Voter and Candidate must not be null");
-        }
+    @Autowired
+    private VoteIngestionService voteIngestionService;
+
+    @Autowired
+    private CandidatesRepository candidatesRepository;
+
+    @Autowired
+    private VoteDedupIndex voteDedupIndex;
+
+    @Autowired
+    private TallyEngine tallyEngine;
+
+    @Autowired
+    private VoteBatchWriter voteBatchWriter;
+
+    @Autowired
+    private CandidateDirectory candidateDirectory;
+
+    @Autowired
+    private VoterRepository voterRepository;
+
+    @Autowired
+    private ElectionsRepository electionsRepository;
+
+    @Autowired
+    private ElectionLifecycle electionLifecycle;
+
+    @Autowired
+    private ResultsFinalizer resultsFinalizer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-        Long voterId = vote.getVoter().getId();
-        // Get election ID from the candidate and set it in the vote
-        Elections election = vote.getCandidate().getElections();
-        vote.setElection(election);
-        Long electionId = election.getId();
-        Long candidateId = vote.getCandidate().getCandidateId();
+    // Cast a vote. Only IDs go in: the candidate's election and post come from the
+    // candidate directory, and the row is saved through entity references, so no
+    // Voter, Candidate or Election is loaded along the way.
+    public VoteReceipt castVote(CastVoteCommand command) {
+        return timed("vote", () -> castVoteUntimed(command));
+    }
 
+    private VoteReceipt castVoteUntimed(CastVoteCommand command) {
         // Handle potential null IDs
-        if (voterId == null || electionId == null || candidateId == null) {
-            throw new IllegalArgumentException("Voter ID, Election ID, and Candidate ID must not be null");
+        if (command == null || command.voterId() == null || command.candidateId() == null) {
+            throw new IllegalArgumentException("Voter ID and Candidate ID must not be null");
         }
+        Long voterId = command.voterId();
+        Long candidateId = command.candidateId();
 
-        // Get the candidate's post
-        String post = vote.getCandidate().getPost();
+        CandidateDirectory.Placement placement = candidateDirectory.find(candidateId);
+        if (placement == null) {
+            throw new IllegalArgumentException("Candidate not found with ID: " + candidateId);
+        }
+        Long electionId = placement.electionId();
+        String post = placement.post();
         if (post == null || post.trim().isEmpty()) {
             throw new IllegalArgumentException("Candidate must have a valid post");
         }
+        if (!electionLifecycle.acceptsVotes(electionId)) {
+            throw new IllegalArgumentException("Election " + electionId + " is not open for voting");
+        }
 
-        // Ensure voter hasn't voted for this post in this election
-        if (votesRepository.existsByVoterIdAndElectionIdAndCandidatePost(voterId, electionId, post)) {
-            throw new RuntimeException("Voter has already voted for the position '" + post + "' in this election");
+        LocalDateTime timestamp = LocalDateTime.now();
+
+        // Ensure voter hasn't voted for this post in this election. The index records
+        // the vote in the same step, so two concurrent requests cannot both pass.
+        if (!voteDedupIndex.tryRecord(electionId, voterId, post)) {
+            throw new DuplicateVoteException("Voter has already voted for the position '" + post + "' in this election");
+        }
+        try {
+            // Seed the live tally before the vote exists, so it is counted exactly once
+            tallyEngine.ensureLoaded(electionId);
+            if (voteIngestionService.isWriteBehind()) {
+                voteIngestionService.requireVoter(voterId);
+                voteIngestionService.submitAll(List.of(new VoteJournal.Entry(0, voterId, candidateId, electionId,
+                        post, timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())));
+            } else {
+                Votes vote = new Votes();
+                vote.setVoter(voterRepository.getReferenceById(voterId));
+                vote.setCandidate(candidatesRepository.getReferenceById(candidateId));
+                vote.setElection(electionsRepository.getReferenceById(electionId));
+                vote.setPost(post);
+                vote.setTimestamp(timestamp);
+                votesRepository.save(vote);
+            }
+        } catch (RuntimeException e) {
+            voteDedupIndex.forget(electionId, voterId, post);
+            throw e;
         }
+        tallyEngine.recordVote(electionId, candidateId);
 
-        vote.setTimestamp(LocalDateTime.now());
-        return votesRepository.save(vote);
+        String status = voteIngestionService.isWriteBehind() ? "accepted" : "recorded";
+        return new VoteReceipt(voterId, candidateId, electionId, post, status, timestamp);
     }
 
-    // Get all votes
+    // Cast a whole ballot: every selection is validated against the election's
+    // candidates and checked for duplicates in one pass, then all rows go in with a
+    // single multi-row INSERT (or one journal append in write-behind mode)
+    public BallotReceipt castBallot(BallotRequest ballot) {
+        return timed("ballot", () -> castBallotUntimed(ballot));
+    }
+
+    private BallotReceipt castBallotUntimed(BallotRequest ballot) {
+        if (ballot == null || ballot.voterId() == null || ballot.electionId() == null) {
+            throw new IllegalArgumentException("Voter ID and Election ID must not be null");
+        }
+        if (ballot.candidateIds() == null || ballot.candidateIds().isEmpty()) {
+            throw new IllegalArgumentException("A ballot must select at least one candidate");
+        }
+        Long voterId = ballot.voterId();
+        Long electionId = ballot.electionId();
+        if (!electionLifecycle.acceptsVotes(electionId)) {
+            throw new IllegalArgumentException("Election " + electionId + " is not open for voting");
+        }
+
+        Map<Long, String> postsByCandidate = new HashMap<>();
+        for (Object[] row : candidatesRepository.findIdAndPostByElectionId(electionId)) {
+            postsByCandidate.put((Long) row[0], (String) row[1]);
+        }
+
+        // post -> selected candidate, in ballot order
+        Map<String, Long> selections = new LinkedHashMap<>();
+        for (Long candidateId : ballot.candidateIds()) {
+            String post = postsByCandidate.get(candidateId);
+            if (post == null && !postsByCandidate.containsKey(candidateId)) {
+                throw new IllegalArgumentException(
+                        "Candidate " + candidateId + " is not standing in election " + electionId);
+            }
+            if (post == null || post.trim().isEmpty()) {
+                throw new IllegalArgumentException("Candidate must have a valid post");
+            }
+            if (selections.putIfAbsent(post, candidateId) != null) {
+                throw new IllegalArgumentException("Ballot selects more than one candidate for the position '"
+                        + post + "'");
+            }
+        }
+
+        List<String> recorded = new ArrayList<>();
+        List<String> duplicates = new ArrayList<>();
+        for (String post : selections.keySet()) {
+            if (voteDedupIndex.tryRecord(electionId, voterId, post)) {
+                recorded.add(post);
+            } else {
+                duplicates.add(post);
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            recorded.forEach(post -> voteDedupIndex.forget(electionId, voterId, post));
+            throw new DuplicateVoteException("Voter has already voted for the position(s) " + duplicates
+                    + " in this election");
+        }
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        long timestampMillis = timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<VoteJournal.Entry> rows = new ArrayList<>(selections.size());
+        List<BallotReceipt.Selection> receipt = new ArrayList<>(selections.size());
+        selections.forEach((post, candidateId) -> {
+            rows.add(new VoteJournal.Entry(0, voterId, candidateId, electionId, post, timestampMillis));
+            receipt.add(new BallotReceipt.Selection(post, candidateId));
+        });
+
+        try {
+            // Seed the live tally before the votes exist, so they are counted exactly once
+            tallyEngine.ensureLoaded(electionId);
+            if (voteIngestionService.isWriteBehind()) {
+                voteIngestionService.requireVoter(voterId);
+                voteIngestionService.submitAll(rows);
+            } else {
+                // One statement, so the whole ballot commits or fails together
+                voteBatchWriter.insert(rows);
+            }
+        } catch (RuntimeException e) {
+            recorded.forEach(post -> voteDedupIndex.forget(electionId, voterId, post));
+            throw e;
+        }
+        selections.values().forEach(candidateId -> tallyEngine.recordVote(electionId, candidateId));
+
+        String status = voteIngestionService.isWriteBehind() ? "accepted" : "recorded";
+        return new BallotReceipt(voterId, electionId, status, timestamp, List.copyOf(receipt));
+    }
+
+    // Time a cast under voting.votes.cast, tagged with what happened to it
+    private <T> T timed(String type, Supplier<T> cast) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = cast.get();
+            outcome = "accepted";
+            return result;
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            outcome = "invalid";
+            throw e;
+        } catch (DuplicateVoteException e) {
+            outcome = "duplicate";
+            throw e;
+        } catch (ServiceOverloadedException e) {
+            outcome = "overloaded";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("voting.votes.cast")
+                    .description("Time to cast a vote or ballot, by outcome")
+                    .tags("type", type, "outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Whether accepted votes are written to the database later rather than immediately
+    public boolean isWriteBehind() {
+        return voteIngestionService.isWriteBehind();
+    }
+
+    // Get all votes (read-only: served by the read replica when one is configured)
+    @Transactional(readOnly = true)
     public List<Votes> getAllVotes() {
         return votesRepository.findAll();
     }
 
     // Get vote by ID
+    @Transactional(readOnly = true)
     public Optional<Votes> getVoteById(Long voteId) {
         // Handle potential null input
         if (voteId == null) {
@@ -69,19 +267,51 @@ public class VotesService {
         if (voteId == null) {
             throw new IllegalArgumentException("Vote ID must not be null");
         }
+        // Free the voter's slot for that post in the dedup index and take the vote
+        // off the live tally as well
+        Optional<Votes> existing = votesRepository.findById(voteId);
         votesRepository.deleteById(voteId);
+        existing.ifPresent(vote -> {
+            String post = vote.getPost() != null ? vote.getPost() : vote.getCandidate().getPost();
+            if (vote.getElection() != null && post != null) {
+                voteDedupIndex.forget(vote.getElection().getId(), vote.getVoter().getId(), post);
+            }
+            if (vote.getElection() != null) {
+                tallyEngine.removeVote(vote.getElection().getId(), vote.getCandidate().getCandidateId());
+            }
+        });
+    }
+
+    // Count votes per candidate for a specific election, as [candidate, count] rows
+    public List<List<Object>> countVotesByElection(Long electionId) {
+        // A completed election is answered from its final results, not the votes
+        Optional<FinalResults> finalResults = electionId == null ? Optional.empty()
+                : resultsFinalizer.getResults(electionId);
+        if (finalResults.isPresent()) {
+            return finalResults.get().toCountRows();
+        }
+        return getTally(electionId).toCountRows();
     }
 
-    // Count votes per candidate for a specific election
-    public List<Object[]> countVotesByElection(Long electionId) {
+    // Live tally for an election, served from memory
+    public TallySnapshot getTally(Long electionId) {
         // Handle potential null input
         if (electionId == null) {
             throw new IllegalArgumentException("Election ID must not be null");
         }
-        return votesRepository.countVotesByElection(electionId);
+        return tallyEngine.getSnapshot(electionId);
+    }
+
+    // Compare the live tally against the votes table
+    public Map<String, Object> verifyTally(Long electionId) {
+        if (electionId == null) {
+            throw new IllegalArgumentException("Election ID must not be null");
+        }
+        return tallyEngine.verify(electionId);
     }
 
     // Get all votes for a specific election
+    @Transactional(readOnly = true)
     public List<Votes> getVotesByElection(Long electionId) {
         // Handle potential null input
         if (electionId == null) {
@@ -98,5 +328,9 @@ public class VotesService {
         }
         // Delete votes by candidate ID directly
         votesRepository.deleteByCandidateId(candidateId);
+
+        // Reload the affected election's dedup index from the table on next use
+        candidatesRepository.findById(candidateId)
+                .ifPresent(candidate -> voteDedupIndex.evict(candidate.getElections().getId()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * An adaptive limit on write requests (votes, ballots, admin saves) in progress
+ * at once, so that a slow database sheds load at the door instead of letting
+ * requests pile up on the connection pool until they time out.
+ *
+ * The limit follows the latency gradient: a short and a long moving average of
+ * request time are kept, and while the short one stays near the long one (within
+ * `tolerance`) every sample adds a little headroom (its square root, smoothed).
+ * When the short average rises further the limit is scaled towards
+ * tolerance * long / short (to no less than half), and a failed request (5xx)
+ * cuts it by a tenth. Samples taken while less than half the limit is in use are not allowed
+ * to grow it, because they say nothing about how much more the database takes.
+ *
+ * A request over the limit waits up to max-wait-ms for a slot if fewer than
+ * queue-capacity requests are already waiting; otherwise it is refused at once
+ * with 503 and Retry-After (ServiceOverloadedException).
+ */
+@Service
+public class WriteConcurrencyLimiter {
+
+    // Samples each moving average is taken over
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double DROP_BACKOFF = 0.9;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${voting.writes.limit.initial:20}")
+    private int initialLimit;
+
+    @Value("${voting.writes.limit.min:4}")
+    private int minLimit;
+
+    @Value("${voting.writes.limit.max:200}")
+    private int maxLimit;
+
+    // How much slower than usual requests may get before the limit comes down
+    @Value("${voting.writes.limit.tolerance:1.5}")
+    private double tolerance;
+
+    // Weight of each new estimate against the current limit
+    @Value("${voting.writes.limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${voting.writes.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${voting.writes.max-wait-ms:50}")
+    private long maxWaitMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    // All guarded by lock
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    private Counter rejected;
+    private Counter failures;
+
+    // Taken by acquire, handed back with release once the request has finished
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        // failed: the request ended in a server error, e.g. a database timeout
+        public void release(boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            WriteConcurrencyLimiter.this.release(System.nanoTime() - startNanos, failed);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        rejected = Counter.builder("voting.writes.rejected")
+                .description("Write requests refused because the concurrency limit and its queue were full")
+                .register(meterRegistry);
+        failures = Counter.builder("voting.writes.failed")
+                .description("Write requests that ended in a server error, each cutting the limit")
+                .register(meterRegistry);
+        Gauge.builder("voting.writes.limit", this, WriteConcurrencyLimiter::getLimit)
+                .description("Write requests allowed in progress at once")
+                .register(meterRegistry);
+        Gauge.builder("voting.writes.inflight", this, WriteConcurrencyLimiter::getInFlight)
+                .description("Write requests in progress")
+                .register(meterRegistry);
+        Gauge.builder("voting.writes.queued", this, WriteConcurrencyLimiter::getWaiting)
+                .description("Write requests waiting for a slot")
+                .register(meterRegistry);
+    }
+
+    public Permit acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return new Permit();
+            }
+            if (waiting >= queueCapacity) {
+                throw reject();
+            }
+            waiting++;
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw reject();
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ServiceOverloadedException reject() {
+        rejected.increment();
+        return new ServiceOverloadedException("Too many requests in progress, please retry shortly", 1);
+    }
+
+    private void release(long rttNanos, boolean failed) {
+        lock.lock();
+        try {
+            int concurrent = inFlight;
+            inFlight--;
+            update(rttNanos, concurrent, failed);
+            // The limit may have grown by more than one
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // One finished request that ran alongside `concurrent` requests (itself included)
+    void update(long rttNanos, int concurrent, boolean failed) {
+        lock.lock();
+        try {
+            if (failed) {
+                failures.increment();
+                limit = Math.max(minLimit, limit * DROP_BACKOFF);
+                return;
+            }
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+            } else {
+                shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+                longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+            }
+            // Latency fell a long way (the database recovered): let the baseline follow
+            if (longRttNanos > 2 * shortRttNanos) {
+                longRttNanos *= 0.95;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+            double estimate = limit * gradient + Math.sqrt(limit);
+            double next = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + estimate * smoothing));
+            if (next > limit && concurrent < limit / 2) {
+                return;
+            }
+            limit = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Strong ETags taken from the body itself, so a tag always names the same
+// content, across restarts too (in-memory counters start again at every boot)
+public final class ContentETag {
+
+    private ContentETag() {
+    }
+
+    public static String of(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            // The first 128 bits are plenty to tell one resource's versions apart
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
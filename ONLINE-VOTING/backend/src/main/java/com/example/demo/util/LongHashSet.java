@@ -0,0 +1,129 @@
+package com.example.demo.util;
+
+import java.util.Arrays;
+
+/*
+ * Open-addressing hash set of primitive longs (linear probing, no boxing).
+ * Not thread-safe: callers guard it with their own lock.
+ *
+ * Long.MIN_VALUE marks an empty slot and cannot be stored; removal uses
+ * backward-shift deletion so no tombstones build up.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] slots;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    // Returns false if the value was already present
+    public boolean add(long value) {
+        checkValue(value);
+        int i = indexOf(value);
+        while (slots[i] != EMPTY) {
+            if (slots[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        if (++size > resizeAt) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        checkValue(value);
+        int i = indexOf(value);
+        while (slots[i] != EMPTY) {
+            if (slots[i] == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    // Returns false if the value was not present
+    public boolean remove(long value) {
+        checkValue(value);
+        int i = indexOf(value);
+        while (slots[i] != value) {
+            if (slots[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // Shift later entries of the same probe run back into the hole
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (slots[j] != EMPTY) {
+            int home = indexOf(slots[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                slots[hole] = slots[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        slots[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+    }
+
+    private int indexOf(long value) {
+        // Mix the bits so sequential ids spread over the table
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        Arrays.fill(slots, EMPTY);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        allocate(capacity);
+        size = 0;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int i = indexOf(value);
+                while (slots[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = value;
+                size++;
+            }
+        }
+    }
+
+    private static void checkValue(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be stored in a LongHashSet");
+        }
+    }
+}
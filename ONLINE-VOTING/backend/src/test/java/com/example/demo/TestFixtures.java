@@ -0,0 +1,65 @@
+package com.example.demo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+
+// Elections, voters and candidates saved straight through the repositories, for
+// tests that need some in the database but are not about creating them
+@Component
+public class TestFixtures {
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	// An active election that starts and ends now
+	public Elections election(String name) {
+		return election(name, "active");
+	}
+
+	public Elections election(String name, String status) {
+		return electionsRepository.save(new Elections(name, "", Instant.now(), Instant.now(), status));
+	}
+
+	public Voter voter(String firstName, String lastName, String email, String universityId) {
+		return voterRepository.save(new Voter(firstName, lastName, email, universityId, null, "x"));
+	}
+
+	// count voters named "<name> Voter<i>", with emails and university IDs made from the name
+	public List<Voter> voters(String name, int count) {
+		String key = name.toLowerCase(Locale.ROOT);
+		List<Voter> voters = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			voters.add(new Voter(name, "Voter" + i, key + i + "@example.com", key.toUpperCase(Locale.ROOT) + i,
+					null, "x"));
+		}
+		return voterRepository.saveAll(voters);
+	}
+
+	// An approved candidate
+	public Candidates candidate(Elections election, Voter voter, String post) {
+		Candidates candidate = new Candidates();
+		candidate.setVoter(voter);
+		candidate.setElections(election);
+		candidate.setPost(post);
+		candidate.setApproved(true);
+		return candidatesRepository.save(candidate);
+	}
+}
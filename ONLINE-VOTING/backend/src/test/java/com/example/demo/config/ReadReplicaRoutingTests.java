@@ -0,0 +1,110 @@
+package com.example.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.VoterPage;
+import com.example.demo.dto.VoterSummary;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.service.VoterService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Two embedded databases: the replica is a copy of the primary taken part way
+// through, so rows added afterwards show which database answered. The JCache
+// second-level cache is shared by every context in the JVM, so it is off here to
+// keep these ids apart from those of the other tests' database.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"voting.datasource.replica.jdbc-url=jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"voting.datasource.replica.username=sa",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+class ReadReplicaRoutingTests {
+
+	@Autowired
+	private VoterService voterService;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@TempDir
+	Path snapshotDir;
+
+	@Test
+	void readOnlyServiceReadsGoToTheReplicaUnlessTheyAskForThePrimary() throws Exception {
+		voterRepository.save(new Voter("Routed", "Early", "early@example.com", "R1", null, "x"));
+		String snapshot = snapshotDir.resolve("primary.sql").toString().replace('\\', '/');
+		new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + snapshot + "'");
+		new JdbcTemplate(replicaDataSource).execute("RUNSCRIPT FROM '" + snapshot + "'");
+		// Not on the replica yet
+		voterRepository.save(new Voter("Routed", "Late", "late@example.com", "R2", null, "x"));
+		double replicaBefore = replicaConnections();
+
+		VoterPage page = voterService.getVoterPage(null, 1000, true);
+		assertEquals(Set.of("early@example.com"), emails(page.voters()));
+		// The total is counted on the primary
+		assertEquals(2L, page.totalCount());
+		assertTrue(replicaConnections() > replicaBefore);
+
+		// Repository reads outside a transaction stay on the primary
+		assertEquals(2, voterRepository.findAll().size());
+
+		VoterPage fresh = ReadRouting.onPrimary(() -> voterService.getVoterPage(null, 1000, false));
+		assertEquals(Set.of("early@example.com", "late@example.com"), emails(fresh.voters()));
+
+		// Same for a request sent with the read-your-writes header
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		String[] route = new String[1];
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voters");
+		request.addHeader(ReadYourWritesFilter.HEADER, "true");
+		new ReadYourWritesFilter().doFilter(request, new MockHttpServletResponse(),
+				(req, res) -> readOnly.executeWithoutResult(status -> route[0] = ReadRouting.currentRoute()));
+		assertEquals(ReadRouting.PRIMARY, route[0]);
+		readOnly.executeWithoutResult(status -> route[0] = ReadRouting.currentRoute());
+		assertEquals(ReadRouting.REPLICA, route[0]);
+	}
+
+	private double replicaConnections() {
+		return meterRegistry.get("voting.datasource.connections").tag("route", ReadRouting.REPLICA).counter()
+				.count();
+	}
+
+	private static Set<String> emails(List<VoterSummary> voters) {
+		return voters.stream().map(VoterSummary::email).collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.TestFixtures;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+
+@SpringBootTest
+class VotePostBackfillTests {
+
+	@Autowired
+	private VotePostBackfill votePostBackfill;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void givesLegacyVotesTheirCandidatesPostExceptWhereThatWouldRepeatAVote() {
+		Elections election = fixtures.election("Legacy 2026", "completed");
+		Voter ada = fixtures.voter("Legacy", "Ada", "legacy.ada@example.com", "LA");
+		Voter ben = fixtures.voter("Legacy", "Ben", "legacy.ben@example.com", "LB");
+		Voter cy = fixtures.voter("Legacy", "Cy", "legacy.cy@example.com", "LC");
+		Long chairA = fixtures.candidate(election, ada, "Chair").getCandidateId();
+		Long chairB = fixtures.candidate(election, ben, "Chair").getCandidateId();
+		Long treasurer = fixtures.candidate(election, cy, "Treasurer").getCandidateId();
+
+		// Rows as an older version left them: no post, and one voter voting twice for Chair
+		legacyVote(9_000_001L, ada, chairA, election, null);
+		legacyVote(9_000_002L, ada, chairB, election, null);
+		legacyVote(9_000_003L, ben, chairA, election, "Chair");
+		legacyVote(9_000_004L, ben, chairB, election, null);
+		legacyVote(9_000_005L, cy, treasurer, election, null);
+
+		votePostBackfill.afterSingletonsInstantiated();
+
+		assertEquals("Chair", post(9_000_001L));
+		assertNull(post(9_000_002L));
+		assertEquals("Chair", post(9_000_003L));
+		assertNull(post(9_000_004L));
+		assertEquals("Treasurer", post(9_000_005L));
+
+		// Nothing left to do: running again changes nothing
+		votePostBackfill.afterSingletonsInstantiated();
+		assertNull(post(9_000_002L));
+	}
+
+	// The pool runs with auto-commit off, so plain JDBC needs a transaction of its own
+	private void legacyVote(long voteId, Voter voter, Long candidateId, Elections election, String post) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO votes (vote_id, voter_id, candidate_id, election_id, post, timestamp)"
+				+ " VALUES (?, ?, ?, ?, ?, ?)", voteId, voter.getId(), candidateId, election.getId(), post,
+				LocalDateTime.now()));
+	}
+
+	private String post(long voteId) {
+		return new TransactionTemplate(transactionManager).execute(status -> jdbcTemplate
+				.queryForObject("SELECT post FROM votes WHERE vote_id = ?", String.class, voteId));
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.dto.BallotView;
+import com.example.demo.exception.ElectionNotFoundException;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class BallotReadModelTests {
+
+	@Autowired
+	private BallotReadModel ballotReadModel;
+
+	@Autowired
+	private CandidatesService candidatesService;
+
+	@Autowired
+	private ElectionsService electionsService;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void rebuildsTheBallotWhenCandidatesChange() {
+		Elections election = electionsService.createElection(
+				new Elections("Ballot 2026", "", Instant.now(), Instant.now(), "active"));
+		Voter voter = voterRepository.save(new Voter("Ada", "Lovelace", "ada.ballot@example.com", "B1", null, "x"));
+
+		BallotReadModel.Ballot empty = ballotReadModel.get(election.getId());
+		assertSame(empty, ballotReadModel.get(election.getId()));
+		assertTrue(empty.view().posts().isEmpty());
+
+		Candidates candidate = new Candidates();
+		candidate.setVoter(voter);
+		candidate.setElections(election);
+		candidate.setPost("Chair");
+		candidate = candidatesService.addCandidates(candidate);
+
+		BallotReadModel.Ballot added = ballotReadModel.get(election.getId());
+		assertNotEquals(empty.etag(), added.etag());
+		BallotView.BallotPost post = added.view().posts().get(0);
+		assertEquals("Chair", post.post());
+		assertEquals("Lovelace", post.candidates().get(0).voter().lastName());
+		assertEquals(false, post.candidates().get(0).approved());
+
+		candidate.setApproved(true);
+		candidatesService.updateCandidates(candidate.getCandidateId(), candidate);
+		assertEquals(true, ballotReadModel.get(election.getId()).view().posts().get(0).candidates().get(0).approved());
+
+		candidatesService.deleteCandidate(candidate.getCandidateId());
+		assertTrue(ballotReadModel.get(election.getId()).view().posts().isEmpty());
+	}
+
+	@Test
+	void keepsTheEtagOfAnUnchangedBallotAndNeverReusesItAcrossRestarts() {
+		Elections election = electionsService.createElection(
+				new Elections("Ballot Restart 2026", "", Instant.now(), Instant.now(), "active"));
+		Voter voter = voterRepository.save(new Voter("Grace", "Hopper", "grace.ballot@example.com", "B2", null, "x"));
+		Candidates candidate = new Candidates();
+		candidate.setVoter(voter);
+		candidate.setElections(election);
+		candidate.setPost("Chair");
+		candidate = candidatesRepository.save(candidate);
+
+		BallotReadModel.Ballot before = restarted().get(election.getId());
+		assertEquals(before.etag(), restarted().get(election.getId()).etag());
+
+		// Changed while the model was down: a fresh model hands out the same version again
+		candidate.setBio("Compiler pioneer");
+		candidatesRepository.save(candidate);
+		BallotReadModel.Ballot after = restarted().get(election.getId());
+		assertEquals(before.view().version(), after.view().version());
+		assertNotEquals(before.etag(), after.etag());
+	}
+
+	@Test
+	void neverKeepsABallotForAnUnknownOrDeletedElection() {
+		Elections election = electionsService.createElection(
+				new Elections("Ballot Deleted 2026", "", Instant.now(), Instant.now(), "active"));
+		election.setDeleted(true);
+		electionsRepository.save(election);
+		Long deletedId = election.getId();
+		Long unknownId = deletedId + 1_000_000;
+
+		assertThrows(ElectionNotFoundException.class, () -> ballotReadModel.get(unknownId));
+		assertThrows(ElectionNotFoundException.class, () -> ballotReadModel.get(deletedId));
+		Map<?, ?> ballots = (Map<?, ?>) ReflectionTestUtils.getField(ballotReadModel, "ballots");
+		assertFalse(ballots.containsKey(unknownId));
+		assertFalse(ballots.containsKey(deletedId));
+	}
+
+	// A read model as it comes up after a restart, not wired to change events
+	private BallotReadModel restarted() {
+		BallotReadModel model = new BallotReadModel();
+		ReflectionTestUtils.setField(model, "candidatesRepository", candidatesRepository);
+		ReflectionTestUtils.setField(model, "electionsRepository", electionsRepository);
+		ReflectionTestUtils.setField(model, "objectMapper", objectMapper);
+		return model;
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.TestFixtures;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.dto.VoteReceipt;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+
+@SpringBootTest
+class CandidateDirectoryTests {
+
+	@Autowired
+	private CandidateDirectory candidateDirectory;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private CandidatesService candidatesService;
+
+	@Autowired
+	private VotesService votesService;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Test
+	void cachesPlacementsUntilTheCandidateChanges() {
+		Elections spring = fixtures.election("Directory Spring 2026");
+		Elections autumn = fixtures.election("Directory Autumn 2026");
+		Voter voter = fixtures.voter("Directory", "Voter", "directory@example.com", "DV");
+
+		Candidates candidate = new Candidates();
+		candidate.setVoter(voter);
+		candidate.setElections(spring);
+		candidate.setPost("Chair");
+		candidate = candidatesService.addCandidates(candidate);
+		Long candidateId = candidate.getCandidateId();
+		// Unknown ids are not cached, so a candidate created later is found
+		assertNull(candidateDirectory.find(candidateId + 1_000_000));
+		assertEquals(new CandidateDirectory.Placement(spring.getId(), "Chair"), candidateDirectory.find(candidateId));
+
+		// A change behind the service's back is not seen: the placement is cached
+		candidate.setPost("Treasurer");
+		candidatesRepository.save(candidate);
+		assertEquals("Chair", candidateDirectory.find(candidateId).post());
+
+		// Edits through the service are, and votes follow them
+		candidate.setElections(autumn);
+		candidatesService.updateCandidates(candidateId, candidate);
+		assertEquals(new CandidateDirectory.Placement(autumn.getId(), "Treasurer"),
+				candidateDirectory.find(candidateId));
+		VoteReceipt receipt = votesService.castVote(new CastVoteCommand(voter.getId(), candidateId));
+		assertEquals(autumn.getId(), receipt.electionId());
+		assertEquals("Treasurer", receipt.post());
+
+		candidatesService.deleteCandidate(candidateId);
+		assertNull(candidateDirectory.find(candidateId));
+		assertThrows(IllegalArgumentException.class,
+				() -> votesService.castVote(new CastVoteCommand(voter.getId(), candidateId)));
+	}
+
+	@Test
+	void dropsOnlyTheDeletedElectionsPlacements() {
+		Elections deleted = fixtures.election("Directory Deleted 2026");
+		Elections kept = fixtures.election("Directory Kept 2026");
+		Voter voter = fixtures.voter("Directory", "Other", "directory2@example.com", "DO");
+		Candidates gone = fixtures.candidate(deleted, voter, "Chair");
+		Candidates stays = fixtures.candidate(kept, voter, "Chair");
+		candidateDirectory.find(gone.getCandidateId());
+		candidateDirectory.find(stays.getCandidateId());
+
+		gone.setPost("Secretary");
+		candidatesRepository.save(gone);
+		stays.setPost("Secretary");
+		candidatesRepository.save(stays);
+		candidateDirectory.invalidateElection(deleted.getId());
+
+		assertEquals("Secretary", candidateDirectory.find(gone.getCandidateId()).post());
+		assertEquals("Chair", candidateDirectory.find(stays.getCandidateId()).post());
+	}
+
+	@Test
+	void doesNotKeepAPlacementReadWhileTheCandidateChanged() {
+		Elections election = fixtures.election("Directory Race 2026");
+		Voter voter = fixtures.voter("Directory", "Race", "directory3@example.com", "DR");
+		Candidates candidate = fixtures.candidate(election, voter, "Chair");
+		Long candidateId = candidate.getCandidateId();
+
+		// The candidate is edited (and invalidated) after the lookup has read the old row
+		CandidatesRepository racing = (CandidatesRepository) Proxy.newProxyInstance(
+				CandidatesRepository.class.getClassLoader(), new Class<?>[] { CandidatesRepository.class },
+				(proxy, method, args) -> {
+					try {
+						Object result = method.invoke(candidatesRepository, args);
+						if (method.getName().equals("findElectionAndPostById")) {
+							candidate.setPost("Treasurer");
+							candidatesRepository.save(candidate);
+							candidateDirectory.invalidate(candidateId);
+						}
+						return result;
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		ReflectionTestUtils.setField(candidateDirectory, "candidatesRepository", racing);
+		try {
+			assertEquals("Chair", candidateDirectory.find(candidateId).post());
+		} finally {
+			ReflectionTestUtils.setField(candidateDirectory, "candidatesRepository", candidatesRepository);
+		}
+		assertEquals("Treasurer", candidateDirectory.find(candidateId).post());
+	}
+}
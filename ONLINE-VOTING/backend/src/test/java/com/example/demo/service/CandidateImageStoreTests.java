@@ -0,0 +1,53 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+@SpringBootTest
+class CandidateImageStoreTests {
+
+	@Autowired
+	private CandidateImageStore candidateImageStore;
+
+	@Test
+	void storesDuplicatesOnceAndServesTheSmallestFittingVariant() throws Exception {
+		BufferedImage photo = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+		// A pixel that differs per run, so the photo is new to the store
+		photo.setRGB(7, 11, (int) System.nanoTime());
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(photo, "png", png);
+
+		CandidateImageStore.StoredImage first = candidateImageStore.store(
+				new MockMultipartFile("image", "me.png", "image/png", png.toByteArray()));
+		CandidateImageStore.StoredImage second = candidateImageStore.store(
+				new MockMultipartFile("image", "same-photo.PNG", "image/png", png.toByteArray()));
+		assertFalse(first.duplicate());
+		assertTrue(second.duplicate());
+		assertEquals(first.url(), second.url());
+
+		// Thumbnails are made in the background
+		String name = first.name();
+		long deadline = System.currentTimeMillis() + 10_000;
+		Path served = candidateImageStore.resolve(name, 100).orElseThrow();
+		while (served.getFileName().toString().equals(name) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			served = candidateImageStore.resolve(name, 100).orElseThrow();
+		}
+		assertTrue(served.getFileName().toString().endsWith("-192.jpg"));
+		assertEquals(192, ImageIO.read(served.toFile()).getWidth());
+		assertEquals(name, candidateImageStore.resolve(name, null).orElseThrow().getFileName().toString());
+		assertTrue(candidateImageStore.resolve("../application.properties", 100).isEmpty());
+	}
+}
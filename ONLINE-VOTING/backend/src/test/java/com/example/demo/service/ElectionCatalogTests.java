@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.model.Elections;
+import com.example.demo.repository.ElectionsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class ElectionCatalogTests {
+
+	@Autowired
+	private ElectionCatalog electionCatalog;
+
+	@Autowired
+	private ElectionsService electionsService;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void servesCachedJsonUntilAnElectionChanges() {
+		Elections election = electionsService.createElection(
+				new Elections("Guild 2026", "", Instant.now(), Instant.now(), "upcoming"));
+
+		ElectionCatalog.CachedJson first = electionCatalog.getAll();
+		assertSame(first, electionCatalog.getAll());
+		assertTrue(text(first).contains("Guild 2026"));
+
+		election.setName("Guild 2026 (rerun)");
+		electionsService.updateElections(election.getId(), election);
+
+		ElectionCatalog.CachedJson second = electionCatalog.getAll();
+		assertNotEquals(first.etag(), second.etag());
+		assertTrue(text(second).contains("Guild 2026 (rerun)"));
+		assertTrue(text(electionCatalog.getById(election.getId()).orElseThrow()).contains("(rerun)"));
+
+		electionsService.deleteElections(election.getId());
+		assertFalse(text(electionCatalog.getAll()).contains("Guild 2026"));
+	}
+
+	@Test
+	void keepsTheEtagOfUnchangedContentAndNeverReusesItAcrossRestarts() {
+		Elections election = electionsService.createElection(
+				new Elections("Restart 2026", "", Instant.now(), Instant.now(), "upcoming"));
+		String before = restarted().getAll().etag();
+		assertEquals(before, restarted().getAll().etag());
+
+		// Changed while the catalog was down: a fresh catalog is at generation 0 again
+		election.setDescription("moved to the great hall");
+		electionsRepository.save(election);
+		ElectionCatalog.CachedJson after = restarted().getAll();
+		assertEquals(0, after.generation());
+		assertNotEquals(before, after.etag());
+	}
+
+	// A catalog as it comes up after a restart, not wired to change events
+	private ElectionCatalog restarted() {
+		ElectionCatalog catalog = new ElectionCatalog();
+		ReflectionTestUtils.setField(catalog, "electionsRepository", electionsRepository);
+		ReflectionTestUtils.setField(catalog, "objectMapper", objectMapper);
+		return catalog;
+	}
+
+	private static String text(ElectionCatalog.CachedJson cached) {
+		return new String(cached.json(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.dto.ElectionDeletionStatus;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.repository.VotesRepository;
+
+@SpringBootTest
+class ElectionDeleterTests {
+
+	@Autowired
+	private ElectionDeleter electionDeleter;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	@Autowired
+	private VotesRepository votesRepository;
+
+	@Autowired
+	private VoteBatchWriter voteBatchWriter;
+
+	@Test
+	void deletesVotesInChunksThenCandidatesThenMarksTheElectionDeleted() throws Exception {
+		Elections election = electionsRepository.save(
+				new Elections("Deleted 2026", "", Instant.now(), Instant.now(), "active"));
+		List<Voter> voters = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			voters.add(new Voter("Delete", "Voter" + i, "delete" + i + "@example.com", "D" + i, null, "x"));
+		}
+		voters = voterRepository.saveAll(voters);
+		Candidates candidate = new Candidates();
+		candidate.setVoter(voters.get(0));
+		candidate.setElections(election);
+		candidate.setPost("Chair");
+		candidate = candidatesRepository.save(candidate);
+		List<VoteJournal.Entry> votes = new ArrayList<>();
+		for (Voter voter : voters) {
+			votes.add(new VoteJournal.Entry(0, voter.getId(), candidate.getCandidateId(), election.getId(), "Chair",
+					System.currentTimeMillis()));
+		}
+		voteBatchWriter.insert(votes);
+
+		Object chunkSize = ReflectionTestUtils.getField(electionDeleter, "chunkSize");
+		ReflectionTestUtils.setField(electionDeleter, "chunkSize", 3);
+		try {
+			ElectionDeletionStatus requested = electionDeleter.requestDeletion(election.getId()).orElseThrow();
+			assertTrue(requested.state().equals("QUEUED") || requested.state().equals("RUNNING")
+					|| requested.state().equals("DONE"));
+			assertTrue(electionsRepository.findByDeletedFalseAndDeletingFalse().stream()
+					.noneMatch(e -> e.getId().equals(election.getId())));
+
+			ElectionDeletionStatus status = requested;
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (!status.state().equals("DONE") && !status.state().equals("FAILED")
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+				status = electionDeleter.getStatus(election.getId()).orElseThrow();
+			}
+			assertEquals("DONE", status.state(), status.error());
+			assertEquals(7, status.votesDeleted());
+			assertEquals(1, status.candidatesDeleted());
+		} finally {
+			ReflectionTestUtils.setField(electionDeleter, "chunkSize", chunkSize);
+		}
+
+		assertTrue(votesRepository.findVoteIdsByElection(election.getId(), Limit.of(1)).isEmpty());
+		assertTrue(candidatesRepository.findByElections_Id(election.getId()).isEmpty());
+		Elections deleted = electionsRepository.findById(election.getId()).orElseThrow();
+		assertTrue(deleted.isDeleted());
+		assertEquals(false, deleted.isDeleting());
+		assertTrue(electionDeleter.requestDeletion(election.getId()).isEmpty());
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.dto.ElectionDeletionStatus;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+
+@SpringBootTest
+class ElectionLifecycleTests {
+
+	@Autowired
+	private ElectionLifecycle electionLifecycle;
+
+	@Autowired
+	private ElectionsService electionsService;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private ResultsFinalizer resultsFinalizer;
+
+	@Autowired
+	private ElectionDeleter electionDeleter;
+
+	@Autowired
+	private VotesService votesService;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	@Test
+	void opensAndClosesElectionsByTheClockAndOnlyMovesForward() {
+		Elections election = electionsService.createElection(new Elections("Lifecycle 2026", "",
+				Instant.now().minusSeconds(60), Instant.now().plusSeconds(3600), "upcoming"));
+		Long id = election.getId();
+		assertFalse(electionLifecycle.acceptsVotes(id));
+
+		electionLifecycle.advance(id);
+		assertEquals("active", electionsRepository.findById(id).orElseThrow().getStatus());
+		assertTrue(electionLifecycle.acceptsVotes(id));
+
+		// Nothing is due yet, so a second run changes nothing
+		electionLifecycle.advance(id);
+		assertEquals("active", electionsRepository.findById(id).orElseThrow().getStatus());
+
+		election = electionsRepository.findById(id).orElseThrow();
+		election.setEnd_time(Instant.now().minusSeconds(1));
+		electionsService.updateElections(id, election);
+		electionLifecycle.advance(id);
+		assertEquals("completed", electionsRepository.findById(id).orElseThrow().getStatus());
+		assertFalse(electionLifecycle.acceptsVotes(id));
+
+		assertTrue(resultsFinalizer.isFinalized(id));
+
+		// Statuses outside the lifecycle are left alone, but final results stay closed to votes
+		electionsService.updateElectionStatus(id, "closed");
+		electionLifecycle.advance(id);
+		assertEquals("closed", electionsRepository.findById(id).orElseThrow().getStatus());
+		assertFalse(electionLifecycle.acceptsVotes(id));
+	}
+
+	@Test
+	void refusesVotesWhileAnElectionIsBeingDeleted() throws Exception {
+		Elections election = electionsService.createElection(new Elections("Deleting 2026", "",
+				Instant.now().minusSeconds(60), Instant.now().plusSeconds(3600), "active"));
+		Long id = election.getId();
+		Voter first = voterRepository.save(new Voter("Deleting", "First", "deleting1@example.com", "DL1", null, "x"));
+		Voter second = voterRepository.save(new Voter("Deleting", "Second", "deleting2@example.com", "DL2", null, "x"));
+		Candidates candidate = new Candidates();
+		candidate.setVoter(first);
+		candidate.setElections(election);
+		candidate.setPost("Chair");
+		candidate.setApproved(true);
+		Long candidateId = candidatesRepository.save(candidate).getCandidateId();
+		votesService.castVote(new CastVoteCommand(first.getId(), candidateId));
+
+		// Hold the deleter between vote chunks, so the vote below lands mid-deletion
+		Object pauseMs = ReflectionTestUtils.getField(electionDeleter, "pauseMs");
+		ReflectionTestUtils.setField(electionDeleter, "pauseMs", 500L);
+		try {
+			electionDeleter.requestDeletion(id).orElseThrow();
+			assertFalse(electionLifecycle.acceptsVotes(id));
+			assertNotEquals("DONE", electionDeleter.getStatus(id).orElseThrow().state());
+			assertThrows(IllegalArgumentException.class,
+					() -> votesService.castVote(new CastVoteCommand(second.getId(), candidateId)));
+
+			ElectionDeletionStatus status = electionDeleter.getStatus(id).orElseThrow();
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (!status.state().equals("DONE") && !status.state().equals("FAILED")
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+				status = electionDeleter.getStatus(id).orElseThrow();
+			}
+			assertEquals("DONE", status.state(), status.error());
+			assertEquals(1, status.votesDeleted());
+		} finally {
+			ReflectionTestUtils.setField(electionDeleter, "pauseMs", pauseMs);
+		}
+		assertFalse(electionLifecycle.acceptsVotes(id));
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTests {
+
+	@Test
+	void hashesOnItsOwnPoolAndRejectsWhenTheQueueIsFull() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PasswordHasher hasher = new PasswordHasher();
+		ReflectionTestUtils.setField(hasher, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(hasher, "workers", 1);
+		ReflectionTestUtils.setField(hasher, "queueCapacity", 1);
+		hasher.start();
+		try {
+			String hash = hasher.encode("secret");
+			assertTrue(hasher.matches("secret", hash));
+			assertFalse(hasher.matches("guess", hash));
+			List<String> hashes = hasher.encodeAll(List.of("a", "b", "c"));
+			assertEquals(3, hashes.size());
+			assertTrue(hasher.matches("c", hashes.get(2)));
+			assertEquals(7, meterRegistry.get("voting.password.hash").timers().stream()
+					.mapToLong(timer -> timer.count()).sum());
+
+			// One hash running and one waiting: the next is turned away
+			ThreadPoolExecutor pool = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "pool");
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			pool.execute(() -> {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			started.await();
+			pool.execute(() -> {
+			});
+			assertThrows(ServiceOverloadedException.class, () -> hasher.matches("secret", hash));
+			assertEquals(1.0, meterRegistry.get("voting.password.rejected").counter().count());
+
+			// A bulk hash waits for room instead
+			CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> hasher.encodeAll(List.of("d")));
+			Thread.sleep(100);
+			assertFalse(bulk.isDone());
+			release.countDown();
+			assertTrue(hasher.matches("d", bulk.get(10, TimeUnit.SECONDS).get(0)));
+			assertEquals(1.0, meterRegistry.get("voting.password.rejected").counter().count());
+		} finally {
+			hasher.stop();
+		}
+	}
+}
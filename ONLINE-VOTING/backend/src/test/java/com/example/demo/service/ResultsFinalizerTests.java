@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.TestFixtures;
+import com.example.demo.dto.FinalResults;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+
+@SpringBootTest
+class ResultsFinalizerTests {
+
+	@Autowired
+	private ResultsFinalizer resultsFinalizer;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	@Autowired
+	private VoteBatchWriter voteBatchWriter;
+
+	@Autowired
+	private VotesService votesService;
+
+	@Test
+	void countsOnceWithWinnersAndTurnoutAndServesFromTheStoredResults() throws Exception {
+		Elections election = fixtures.election("Final 2026");
+		Long electionId = election.getId();
+		List<Voter> voters = fixtures.voters("Final", 5);
+		Candidates chairA = fixtures.candidate(election, voters.get(0), "Chair");
+		Candidates chairB = fixtures.candidate(election, voters.get(1), "Chair, \"Deputy\"");
+		Candidates treasurer = fixtures.candidate(election, voters.get(2), "Treasurer");
+		Candidates secretaryA = fixtures.candidate(election, voters.get(3), "Secretary");
+		Candidates secretaryB = fixtures.candidate(election, voters.get(4), "Secretary");
+
+		List<VoteJournal.Entry> votes = new ArrayList<>();
+		long now = System.currentTimeMillis();
+		// Chair: 3 votes for A; Secretary: a 1-1 tie; Treasurer: nobody voted
+		for (int i = 0; i < 3; i++) {
+			votes.add(new VoteJournal.Entry(0, voters.get(i).getId(), chairA.getCandidateId(), electionId, "Chair",
+					now));
+		}
+		votes.add(new VoteJournal.Entry(0, voters.get(0).getId(), secretaryA.getCandidateId(), electionId,
+				"Secretary", now));
+		votes.add(new VoteJournal.Entry(0, voters.get(3).getId(), secretaryB.getCandidateId(), electionId,
+				"Secretary", now));
+		voteBatchWriter.insert(votes);
+
+		// Not closed yet
+		assertThrows(IllegalArgumentException.class, () -> resultsFinalizer.finalizeResults(electionId));
+		assertFalse(resultsFinalizer.isFinalized(electionId));
+
+		election.setStatus("completed");
+		electionsRepository.save(election);
+		FinalResults results = resultsFinalizer.finalizeResults(electionId);
+		assertTrue(resultsFinalizer.isFinalized(electionId));
+		assertEquals(5, results.totalVotes());
+		assertEquals(4, results.ballotsCast());
+		assertEquals(voterRepository.count(), results.registeredVoters());
+		assertEquals(4.0 / voterRepository.count(), results.turnout(), 1e-9);
+
+		assertEquals(List.of("Chair", "Chair, \"Deputy\"", "Secretary", "Treasurer"),
+				results.posts().stream().map(FinalResults.PostResult::post).toList());
+		assertEquals(List.of(chairA.getCandidateId()), results.posts().get(0).winners());
+		assertEquals(List.of(), results.posts().get(1).winners());
+		assertEquals(List.of(secretaryA.getCandidateId(), secretaryB.getCandidateId()),
+				results.posts().get(2).winners());
+		assertEquals(0, results.posts().get(3).totalVotes());
+		assertEquals(treasurer.getCandidateId(), results.posts().get(3).candidates().get(0).candidateId());
+		assertEquals(chairB.getCandidateId(), results.posts().get(1).candidates().get(0).candidateId());
+
+		// Later votes change nothing: the results are stored once
+		voteBatchWriter.insert(List.of(new VoteJournal.Entry(0, voters.get(4).getId(), chairA.getCandidateId(),
+				electionId, "Chair", now)));
+		assertSame(results, resultsFinalizer.finalizeResults(electionId));
+		assertEquals(3, votesService.countVotesByElection(electionId).size());
+		assertEquals(3L, votesService.countVotesByElection(electionId).get(0).get(1));
+
+		Path json = resultsFinalizer.artifact(electionId, ResultsFinalizer.Format.JSON).orElseThrow();
+		assertTrue(Files.readString(json).contains("\"ballotsCast\":4"));
+		Path csv = resultsFinalizer.artifact(electionId, ResultsFinalizer.Format.CSV).orElseThrow();
+		List<String> lines = Files.readAllLines(csv);
+		assertEquals("post,candidate_id,first_name,last_name,votes,share,winner", lines.get(0));
+		assertEquals("Chair," + chairA.getCandidateId() + ",Final,Voter0,3,1.0000,true", lines.get(1));
+		assertEquals("\"Chair, \"\"Deputy\"\"\"," + chairB.getCandidateId() + ",Final,Voter1,0,0.0000,false",
+				lines.get(2));
+
+		// A lost file is written again from the stored row
+		Files.delete(csv);
+		assertEquals(lines, Files.readAllLines(
+				resultsFinalizer.artifact(electionId, ResultsFinalizer.Format.CSV).orElseThrow()));
+
+		resultsFinalizer.discard(electionId);
+		assertFalse(resultsFinalizer.isFinalized(electionId));
+		assertFalse(Files.exists(json));
+		assertTrue(resultsFinalizer.artifact(electionId, ResultsFinalizer.Format.JSON).isEmpty());
+	}
+}
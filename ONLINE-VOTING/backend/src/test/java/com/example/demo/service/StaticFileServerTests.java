@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@SpringBootTest
+class StaticFileServerTests {
+
+	@Autowired
+	private StaticFileServer staticFileServer;
+
+	@Test
+	void servesSmallFilesFromMemoryAndAnswersMatchingEtagsWith304() throws Exception {
+		Path file = Paths.get("target", "test-static", "photo-" + System.nanoTime() + ".png");
+		Files.createDirectories(file.getParent());
+		Files.write(file, new byte[] { 1, 2, 3, 4 });
+		CacheControl cacheControl = CacheControl.noCache();
+
+		ResponseEntity<Resource> first = staticFileServer.serve(file, cacheControl, new MockHttpServletRequest(),
+				new MockHttpServletResponse());
+		assertEquals(HttpStatus.OK, first.getStatusCode());
+		assertEquals(MediaType.IMAGE_PNG, first.getHeaders().getContentType());
+		assertInstanceOf(ByteArrayResource.class, first.getBody());
+		assertEquals(4, first.getBody().contentLength());
+		String etag = first.getHeaders().getETag();
+		assertNotNull(etag);
+
+		MockHttpServletRequest revalidate = new MockHttpServletRequest();
+		revalidate.addHeader("If-None-Match", "\"other\", " + etag);
+		ResponseEntity<Resource> second = staticFileServer.serve(file, cacheControl, revalidate,
+				new MockHttpServletResponse());
+		assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+		assertEquals(etag, second.getHeaders().getETag());
+
+		assertEquals(HttpStatus.NOT_FOUND, staticFileServer.serve(file.resolveSibling("missing.png"), cacheControl,
+				new MockHttpServletRequest(), new MockHttpServletResponse()).getStatusCode());
+	}
+}
@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.TestFixtures;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.dto.TallySnapshot;
+import com.example.demo.exception.ElectionNotFoundException;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.ElectionsRepository;
+
+@SpringBootTest
+class TallyEngineTests {
+
+	@Autowired
+	private TallyEngine tallyEngine;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private VotesService votesService;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private VoteBatchWriter voteBatchWriter;
+
+	@Test
+	void countsEveryVoteExactlyOnceWhileTheFirstVotesSeedTheTally() throws Exception {
+		Elections election = fixtures.election("Tally 2026");
+		Long electionId = election.getId();
+		List<Voter> voters = fixtures.voters("Tally", 40);
+		Candidates chair = fixtures.candidate(election, voters.get(0), "Chair");
+		Candidates treasurer = fixtures.candidate(election, voters.get(1), "Treasurer");
+
+		// Votes already in the database come from the seed query
+		List<VoteJournal.Entry> seeded = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			seeded.add(new VoteJournal.Entry(0, voters.get(i).getId(), chair.getCandidateId(), electionId, "Chair",
+					System.currentTimeMillis()));
+		}
+		voteBatchWriter.insert(seeded);
+		tallyEngine.evict(electionId);
+
+		// The rest race each other to load the tally while their votes are saved
+		List<Voter> casting = voters.subList(10, voters.size());
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch go = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < casting.size(); i++) {
+				Long voterId = casting.get(i).getId();
+				Long candidateId = (i % 3 == 0 ? treasurer : chair).getCandidateId();
+				futures.add(pool.submit(() -> {
+					go.await();
+					return votesService.castVote(new CastVoteCommand(voterId, candidateId));
+				}));
+			}
+			go.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		TallySnapshot snapshot = tallyEngine.getSnapshot(electionId);
+		assertEquals(40, snapshot.totalVotes());
+		assertEquals(Boolean.TRUE, tallyEngine.verify(electionId).get("consistent"));
+	}
+
+	@Test
+	void keepsExactCountsUnderConcurrentRecordsAndRemovals() throws Exception {
+		Elections election = fixtures.election("Tally Load 2026");
+		Voter voter = fixtures.voter("Tally", "Load", "tallyload@example.com", "TL");
+		Long candidateId = fixtures.candidate(election, voter, "Chair").getCandidateId();
+		Long electionId = election.getId();
+		tallyEngine.ensureLoaded(electionId);
+		long before = tallyEngine.getSnapshot(electionId).version();
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(pool.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						tallyEngine.recordVote(electionId, candidateId);
+						if (i % 4 == 0) {
+							tallyEngine.removeVote(electionId, candidateId);
+						}
+						// Readers rebuild snapshots alongside the writers
+						tallyEngine.getSnapshot(electionId);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		TallySnapshot snapshot = tallyEngine.getSnapshot(electionId);
+		assertEquals(8 * 750, snapshot.totalVotes());
+		assertEquals(before + 8 * 1250, snapshot.version());
+	}
+
+	@Test
+	void aReloadedTallyNeverReusesAnEarlierTag() {
+		Elections election = fixtures.election("Tally Epoch 2026");
+		Long electionId = election.getId();
+
+		TallySnapshot first = tallyEngine.getSnapshot(electionId);
+		tallyEngine.evict(electionId);
+		TallySnapshot reloaded = tallyEngine.getSnapshot(electionId);
+
+		// Same counts and the same version number, but a different load
+		assertEquals(first.version(), reloaded.version());
+		assertNotEquals(first.epoch(), reloaded.epoch());
+		assertNotEquals(first.tag(), reloaded.tag());
+		assertTrue(reloaded.tag().endsWith("-" + reloaded.version()));
+	}
+
+	@Test
+	void neverKeepsATallyForAnUnknownOrDeletedElection() {
+		Elections election = fixtures.election("Tally Deleted 2026");
+		election.setDeleted(true);
+		electionsRepository.save(election);
+		Long deletedId = election.getId();
+		Long unknownId = deletedId + 1_000_000;
+
+		assertThrows(ElectionNotFoundException.class, () -> tallyEngine.getSnapshot(unknownId));
+		assertThrows(ElectionNotFoundException.class, () -> tallyEngine.getSnapshot(deletedId));
+		assertThrows(ElectionNotFoundException.class, () -> votesService.countVotesByElection(unknownId));
+
+		Map<?, ?> elections = (Map<?, ?>) ReflectionTestUtils.getField(tallyEngine, "elections");
+		assertFalse(elections.containsKey(unknownId));
+		assertFalse(elections.containsKey(deletedId));
+	}
+}
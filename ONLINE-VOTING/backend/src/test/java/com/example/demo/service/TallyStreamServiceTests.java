@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.dto.TallySnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class TallyStreamServiceTests {
+
+	@Test
+	void firstSubscriberKeepsItsChannelWhenATickRunsDuringTheSnapshot() {
+		TallyStreamService service = new TallyStreamService();
+		long[] votes = { 0 };
+		TallyEngine tallyEngine = new TallyEngine() {
+			private boolean ticked;
+
+			@Override
+			public TallySnapshot getSnapshot(Long electionId) {
+				if (!ticked) {
+					// The scheduler runs while the snapshot is being sent to the first subscriber
+					ticked = true;
+					service.tick();
+				}
+				return snapshot(electionId, votes[0]);
+			}
+		};
+		ReflectionTestUtils.setField(service, "tallyEngine", tallyEngine);
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+		ReflectionTestUtils.setField(service, "maxClients", 10);
+		ReflectionTestUtils.setField(service, "heartbeatMs", 60_000L);
+
+		SseEmitter emitter = service.subscribe(7L);
+		assertEquals(1, service.getClientCount());
+
+		votes[0] = 3;
+		service.tick();
+		Map<?, ?> channels = (Map<?, ?>) ReflectionTestUtils.getField(service, "channels");
+		Object channel = channels.get(7L);
+		assertTrue(((List<?>) ReflectionTestUtils.getField(channel, "emitters")).contains(emitter));
+		// The delta for the new vote went out on the channel the subscriber is on
+		assertEquals(3L, ReflectionTestUtils.getField(channel, "lastVersion"));
+	}
+
+	private static TallySnapshot snapshot(Long electionId, long votes) {
+		TallySnapshot.CandidateTally candidate = new TallySnapshot.CandidateTally(11L, "Chair",
+				new TallySnapshot.VoterName("Stream", "Candidate"), null, votes);
+		return new TallySnapshot(electionId, "test", votes, null, votes,
+				List.of(new TallySnapshot.PostTally("Chair", votes, List.of(candidate))));
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.model.Votes;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.example.demo.repository.VotesRepository;
+
+@SpringBootTest
+class VoteBatchWriterTests {
+
+	@Autowired
+	private VoteBatchWriter voteBatchWriter;
+
+	@Autowired
+	private VotesRepository votesRepository;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Test
+	void batchInsertsAndJpaSavesShareTheVoteIdSequence() {
+		Elections election = electionsRepository.save(
+				new Elections("Guild 2026", "", Instant.now(), Instant.now(), "active"));
+		Voter standing = voterRepository.save(new Voter("Ada", "Okello", "ada@example.com", "U1", null, "x"));
+		Candidates candidate = new Candidates();
+		candidate.setVoter(standing);
+		candidate.setElections(election);
+		candidate.setPost("Guild President");
+		candidate = candidatesRepository.save(candidate);
+
+		List<Voter> voters = voterRepository.saveAll(List.of(
+				new Voter("B", "One", "b1@example.com", "U2", null, "x"),
+				new Voter("B", "Two", "b2@example.com", "U3", null, "x"),
+				new Voter("B", "Three", "b3@example.com", "U4", null, "x")));
+
+		Votes saved = new Votes();
+		saved.setVoter(voters.get(0));
+		saved.setCandidate(candidate);
+		saved.setElection(election);
+		saved.setPost("Guild President");
+		saved.setTimestamp(LocalDateTime.now());
+		votesRepository.save(saved);
+
+		long now = System.currentTimeMillis();
+		voteBatchWriter.insert(List.of(
+				new VoteJournal.Entry(0, voters.get(1).getId(), candidate.getCandidateId(), election.getId(),
+						"Guild President", now),
+				new VoteJournal.Entry(0, voters.get(2).getId(), candidate.getCandidateId(), election.getId(),
+						"Guild President", now)));
+
+		List<Votes> votes = votesRepository.findByElection_id(election.getId());
+		Set<Long> ids = new HashSet<>();
+		votes.forEach(vote -> ids.add(vote.getVoteId()));
+		assertEquals(3, votes.size());
+		assertEquals(3, ids.size());
+	}
+}
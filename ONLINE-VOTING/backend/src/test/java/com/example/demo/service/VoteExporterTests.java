@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.ElectionsRepository;
+import com.example.demo.repository.VoterRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class VoteExporterTests {
+
+	@Autowired
+	private VoteExporter voteExporter;
+
+	@Autowired
+	private VoteBatchWriter voteBatchWriter;
+
+	@Autowired
+	private VoterRepository voterRepository;
+
+	@Autowired
+	private ElectionsRepository electionsRepository;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void exportsEveryVoteAsCsvAndNdjson() throws Exception {
+		Elections election = electionsRepository.save(
+				new Elections("Export 2026", "", Instant.now(), Instant.now(), "closed"));
+		Voter standing = voterRepository.save(
+				new Voter("Grace", "Hopper, Jr", "grace.export@example.com", "E0", null, "x"));
+		Candidates candidate = new Candidates();
+		candidate.setVoter(standing);
+		candidate.setElections(election);
+		candidate.setPost("Treasurer");
+		candidate = candidatesRepository.save(candidate);
+
+		List<Voter> voters = voterRepository.saveAll(List.of(
+				new Voter("E", "One", "e1.export@example.com", "E1", null, "x"),
+				new Voter("E", "Two", "e2.export@example.com", "E2", null, "x")));
+		long now = System.currentTimeMillis();
+		voteBatchWriter.insert(List.of(
+				new VoteJournal.Entry(0, voters.get(0).getId(), candidate.getCandidateId(), election.getId(),
+						"Treasurer", now),
+				new VoteJournal.Entry(0, voters.get(1).getId(), candidate.getCandidateId(), election.getId(),
+						"Treasurer", now)));
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		assertEquals(2, voteExporter.export(election.getId(), VoteExporter.Format.CSV, csv));
+		String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("vote_id,voter_id,candidate_id"));
+		assertTrue(lines[1].contains(",Grace,\"Hopper, Jr\",Treasurer,"));
+
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		voteExporter.export(election.getId(), VoteExporter.Format.NDJSON, ndjson);
+		String[] records = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, records.length);
+		JsonNode second = objectMapper.readTree(records[1]);
+		assertEquals(voters.get(1).getId(), second.get("voterId").asLong());
+		assertEquals("Hopper, Jr", second.get("candidateLastName").asText());
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.TestFixtures;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.dto.VoteReceipt;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.VotesRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"voting.ingestion.mode=write-behind",
+		"voting.ingestion.journal-path=target/test-ingestion-journal.log" })
+class VoteIngestionServiceTests {
+
+	@Autowired
+	private VoteIngestionService voteIngestionService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private VotesService votesService;
+
+	@Autowired
+	private VoteBatchWriter voteBatchWriter;
+
+	@Autowired
+	private VoteDedupIndex voteDedupIndex;
+
+	@Autowired
+	private VotesRepository votesRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void rejectsAVoteFromAnUnknownVoterUpFront() {
+		Elections election = fixtures.election("Ingestion Unknown 2026");
+		Voter voter = fixtures.voter("Ingest", "Known", "ingestknown@example.com", "IK1");
+		Long chair = fixtures.candidate(election, voter, "Chair").getCandidateId();
+
+		Long unknownVoter = voter.getId() + 1_000_000;
+		assertThrows(IllegalArgumentException.class,
+				() -> votesService.castVote(new CastVoteCommand(unknownVoter, chair)));
+		assertFalse(voteDedupIndex.hasVoted(election.getId(), unknownVoter, "Chair"));
+
+		VoteReceipt receipt = votesService.castVote(new CastVoteCommand(voter.getId(), chair));
+		assertEquals("accepted", receipt.status());
+	}
+
+	@Test
+	void retriesARowThatFailsForAnyReasonButItsData() throws InterruptedException {
+		Elections election = fixtures.election("Ingestion Retry 2026");
+		Voter voter = fixtures.voter("Ingest", "Retry", "ingestretry@example.com", "IR1");
+		Long chair = fixtures.candidate(election, voter, "Chair").getCandidateId();
+
+		// The batch is refused, then the single-row retry hits a transient failure
+		AtomicInteger calls = new AtomicInteger();
+		VoteBatchWriter flaky = new VoteBatchWriter() {
+			@Override
+			public void insert(List<VoteJournal.Entry> rows) {
+				int call = calls.incrementAndGet();
+				if (call == 1) {
+					throw new DataIntegrityViolationException("refused batch");
+				}
+				if (call == 2) {
+					throw new TransientDataAccessResourceException("connection lost");
+				}
+				voteBatchWriter.insert(rows);
+			}
+		};
+		ReflectionTestUtils.setField(voteIngestionService, "voteBatchWriter", flaky);
+		try {
+			votesService.castVote(new CastVoteCommand(voter.getId(), chair));
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (!votesRepository.existsByVoter_IdAndCandidate_CandidateId(voter.getId(), chair)
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+		} finally {
+			ReflectionTestUtils.setField(voteIngestionService, "voteBatchWriter", voteBatchWriter);
+		}
+		assertTrue(votesRepository.existsByVoter_IdAndCandidate_CandidateId(voter.getId(), chair));
+		assertTrue(voteDedupIndex.hasVoted(election.getId(), voter.getId(), "Chair"));
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	void reportsAcceptedAndWrittenVotesAsMeters() throws InterruptedException {
+		Elections election = fixtures.election("Ingestion Meters 2026");
+		Voter voter = fixtures.voter("Ingest", "Meters", "ingestmeters@example.com", "IM1");
+		Long chair = fixtures.candidate(election, voter, "Chair").getCandidateId();
+		double accepted = votes("accepted");
+		double written = votes("written");
+		long syncs = meterRegistry.get("voting.ingestion.journal.sync").timer().count();
+
+		votesService.castVote(new CastVoteCommand(voter.getId(), chair));
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!votesRepository.existsByVoter_IdAndCandidate_CandidateId(voter.getId(), chair)
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertEquals(accepted + 1, votes("accepted"));
+		// Votes of the other tests may have been written in the meantime too
+		assertTrue(votes("written") >= written + 1);
+		assertTrue(meterRegistry.get("voting.ingestion.journal.sync").timer().count() > syncs);
+		assertTrue(meterRegistry.get("voting.ingestion.commit.latency").timer().count() > 0);
+		assertTrue(meterRegistry.get("voting.ingestion.batch.size").summary().count() > 0);
+		assertEquals(0, meterRegistry.get("voting.ingestion.queue.depth").gauge().value());
+	}
+
+	private double votes(String outcome) {
+		return meterRegistry.get("voting.ingestion.votes").tag("outcome", outcome).counter().count();
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VoteJournalTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void replaysOnlyVotesAfterTheCheckpoint() throws Exception {
+		Path file = dir.resolve("votes.log");
+		VoteJournal journal = new VoteJournal(file);
+		assertEquals(0, journal.open().size());
+
+		List<VoteJournal.Entry> first = journal.append(List.of(vote(1, 10), vote(2, 10)))
+				.get(5, TimeUnit.SECONDS);
+		journal.append(List.of(vote(3, 11))).get(5, TimeUnit.SECONDS);
+		journal.markCommitted(first.stream().map(VoteJournal.Entry::seq).toList());
+		journal.close();
+
+		VoteJournal reopened = new VoteJournal(file);
+		List<VoteJournal.Entry> uncommitted = reopened.open();
+		reopened.close();
+
+		assertEquals(1, uncommitted.size());
+		assertEquals(3, uncommitted.get(0).voterId());
+		assertEquals(11, uncommitted.get(0).candidateId());
+		assertEquals("Guild President", uncommitted.get(0).post());
+	}
+
+	@Test
+	void dropsATornRecordAtTheEnd() throws Exception {
+		Path file = dir.resolve("votes.log");
+		VoteJournal journal = new VoteJournal(file);
+		journal.open();
+		journal.append(List.of(vote(1, 10), vote(2, 10))).get(5, TimeUnit.SECONDS);
+		journal.close();
+
+		// Simulate a crash halfway through writing the second record
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 10);
+		}
+
+		VoteJournal reopened = new VoteJournal(file);
+		List<VoteJournal.Entry> uncommitted = reopened.open();
+		List<VoteJournal.Entry> next = reopened.append(List.of(vote(4, 12))).get(5, TimeUnit.SECONDS);
+		reopened.close();
+
+		assertEquals(1, uncommitted.size());
+		assertEquals(1, uncommitted.get(0).voterId());
+		assertEquals(2, next.get(0).seq());
+	}
+
+	private static VoteJournal.Entry vote(long voterId, long candidateId) {
+		return new VoteJournal.Entry(0, voterId, candidateId, 1, "Guild President", System.currentTimeMillis());
+	}
+}
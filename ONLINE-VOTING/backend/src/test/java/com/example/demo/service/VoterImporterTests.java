@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.dto.VoterImportReport;
+import com.example.demo.model.Voter;
+
+@SpringBootTest
+class VoterImporterTests {
+
+	@Autowired
+	private VoterImporter voterImporter;
+
+	@Autowired
+	private VoterService voterService;
+
+	@Autowired
+	private PasswordHasher passwordHasher;
+
+	@Test
+	void importsValidRowsAndReportsTheRestByLine() throws Exception {
+		voterService.registerVoter(new Voter("Existing", "Voter", "taken.import@example.com", "IMP0", null, "pw"));
+		String csv = String.join("\r\n",
+				"Email,firstName,lastName,universityId,password",
+				"alan.import@example.com,Alan,Turing,IMP1,enigma",
+				"\"katherine.import@example.com\",\"Katherine, \"\"Kathy\"\"\",Johnson,IMP2,orbit",
+				"",
+				"TAKEN.import@example.com,Someone,Else,IMP3,pw",
+				"alan2.import@example.com,Alan,Again,imp1,pw",
+				"no-at-sign,Nobody,Here,IMP4,pw",
+				"edsger.import@example.com,Edsger,Dijkstra,IMP5,",
+				"edsger.import@example.com,Edsger,Dijkstra,IMP5,semaphore");
+
+		VoterImportReport report = voterImporter.importCsv(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(7, report.rows());
+		assertEquals(3, report.imported());
+		assertEquals(4, report.failed());
+		assertEquals(List.of(5L, 6L, 7L, 8L), report.errors().stream().map(VoterImportReport.RowError::line).toList());
+		assertFalse(report.errorsTruncated());
+		assertTrue(report.rowsPerSecond() > 0);
+
+		Voter katherine = voterService.getByCredentials("katherine, \"kathy\"", "johnson",
+				"katherine.import@example.com", "imp2").orElseThrow();
+		assertTrue(passwordHasher.matches("orbit", katherine.getPasswordHash()));
+		assertTrue(katherine.getApproved());
+	}
+
+	@Test
+	void rejectsAFileWithoutTheRequiredColumns() {
+		assertThrows(IllegalArgumentException.class, () -> voterImporter.importCsv(
+				new ByteArrayInputStream("email,firstName\nx@example.com,X\n".getBytes(StandardCharsets.UTF_8))));
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.dto.VoterPage;
+import com.example.demo.dto.VoterSummary;
+import com.example.demo.model.Voter;
+
+@SpringBootTest
+class VoterServiceTests {
+
+	@Autowired
+	private VoterService voterService;
+
+	@Test
+	void pagesThroughVotersByIdAndKeepsTheCountCurrent() {
+		List<Voter> saved = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			saved.add(voterService.registerVoter(
+					new Voter("Page", "Voter" + i, "page" + i + "@example.com", "P" + i, null, "secret")));
+		}
+		long countBefore = voterService.countVoters();
+
+		List<Long> seen = new ArrayList<>();
+		Long cursor = saved.get(0).getId() - 1;
+		VoterPage page;
+		do {
+			page = voterService.getVoterPage(cursor, 2, false);
+			page.voters().stream().map(VoterSummary::id).forEach(seen::add);
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertEquals(saved.stream().map(Voter::getId).toList(), seen);
+		assertNull(page.totalCount());
+
+		voterService.registerVoter(new Voter("Page", "Voter5", "page5@example.com", "P5", null, "secret"));
+		assertEquals(countBefore + 1, voterService.getVoterPage(null, 1, true).totalCount());
+	}
+
+	@Test
+	void logsInCaseInsensitivelyAndForgetsCachedAnswersWhenVotersChange() {
+		// Not registered yet: the miss is cached, and registering must not be hidden by it
+		assertTrue(voterService.getByCredentials("Grace", "Hopper", "grace.login@example.com", "L1").isEmpty());
+		Voter grace = voterService.registerVoter(
+				new Voter("Grace", "Hopper", "Grace.Login@example.com", "L1", null, "secret"));
+
+		assertEquals(grace.getId(), voterService
+				.getByCredentials(" grace ", "HOPPER", "grace.login@EXAMPLE.com ", "l1").orElseThrow().getId());
+		assertTrue(voterService.getByCredentials("Ada", "Hopper", "grace.login@example.com", "L1").isEmpty());
+
+		Voter changes = new Voter("Grace", "Hopper", "grace.new@example.com", "L1", null, null);
+		voterService.updateVoter(grace.getId(), changes);
+		assertFalse(voterService.getByCredentials("Grace", "Hopper", "grace.new@example.com", "L1").isEmpty());
+		assertTrue(voterService.getByCredentials("Grace", "Hopper", "grace.login@example.com", "L1").isEmpty());
+
+		voterService.deleteVoter(grace.getId());
+		assertTrue(voterService.getByCredentials("Grace", "Hopper", "grace.new@example.com", "L1").isEmpty());
+	}
+}
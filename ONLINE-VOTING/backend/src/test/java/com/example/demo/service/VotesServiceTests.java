@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.example.demo.TestFixtures;
+import com.example.demo.dto.BallotReceipt;
+import com.example.demo.dto.BallotRequest;
+import com.example.demo.dto.CastVoteCommand;
+import com.example.demo.exception.DuplicateVoteException;
+import com.example.demo.model.Candidates;
+import com.example.demo.model.Elections;
+import com.example.demo.model.Voter;
+import com.example.demo.repository.CandidatesRepository;
+import com.example.demo.repository.VotesRepository;
+
+@SpringBootTest
+class VotesServiceTests {
+
+	@Autowired
+	private VotesService votesService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private VoteDedupIndex voteDedupIndex;
+
+	@Autowired
+	private TallyEngine tallyEngine;
+
+	@Autowired
+	private CandidatesRepository candidatesRepository;
+
+	@Autowired
+	private VotesRepository votesRepository;
+
+	@Test
+	void castsAWholeBallotOrNoneOfIt() {
+		Elections election = fixtures.election("Ballot Cast 2026");
+		Long electionId = election.getId();
+		Voter voter = fixtures.voter("Ballot", "Caster", "ballotcast@example.com", "BC1");
+		Voter other = fixtures.voter("Ballot", "Other", "ballotother@example.com", "BC2");
+		Long chair = fixtures.candidate(election, voter, "Chair").getCandidateId();
+		Long chairRival = fixtures.candidate(election, other, "Chair").getCandidateId();
+		Long treasurer = fixtures.candidate(election, other, "Treasurer").getCandidateId();
+		Long secretary = fixtures.candidate(election, voter, "Secretary").getCandidateId();
+
+		// Two candidates for one post: rejected before anything is recorded
+		assertThrows(IllegalArgumentException.class, () -> votesService.castBallot(
+				new BallotRequest(voter.getId(), electionId, List.of(chair, chairRival, treasurer))));
+		assertFalse(voteDedupIndex.hasVoted(electionId, voter.getId(), "Treasurer"));
+
+		// A post already voted for fails the ballot, and the other posts stay open
+		votesService.castVote(new CastVoteCommand(voter.getId(), secretary));
+		assertThrows(DuplicateVoteException.class, () -> votesService.castBallot(
+				new BallotRequest(voter.getId(), electionId, List.of(chair, treasurer, secretary))));
+		assertFalse(voteDedupIndex.hasVoted(electionId, voter.getId(), "Chair"));
+		assertFalse(voteDedupIndex.hasVoted(electionId, voter.getId(), "Treasurer"));
+		assertEquals(1, tallyEngine.getSnapshot(electionId).totalVotes());
+
+		// A failed insert (an unknown voter) rolls back every post it recorded
+		Long unknownVoter = other.getId() + 1_000_000;
+		assertThrows(DataIntegrityViolationException.class, () -> votesService.castBallot(
+				new BallotRequest(unknownVoter, electionId, List.of(chair, treasurer))));
+		assertFalse(voteDedupIndex.hasVoted(electionId, unknownVoter, "Chair"));
+		assertFalse(voteDedupIndex.hasVoted(electionId, unknownVoter, "Treasurer"));
+		assertEquals(1, tallyEngine.getSnapshot(electionId).totalVotes());
+
+		BallotReceipt receipt = votesService.castBallot(
+				new BallotRequest(voter.getId(), electionId, List.of(chair, treasurer)));
+		assertEquals("recorded", receipt.status());
+		assertEquals(List.of(new BallotReceipt.Selection("Chair", chair),
+				new BallotReceipt.Selection("Treasurer", treasurer)), receipt.votes());
+		assertTrue(voteDedupIndex.hasVoted(electionId, voter.getId(), "Chair"));
+		assertEquals(3, tallyEngine.getSnapshot(electionId).totalVotes());
+		assertEquals(1, votesRepository.countVotersByElection(electionId));
+		assertEquals(Boolean.TRUE, tallyEngine.verify(electionId).get("consistent"));
+	}
+
+	@Test
+	void loadsTheDedupIndexFromThePostStoredOnTheVote() {
+		Elections election = fixtures.election("Dedup Post 2026");
+		Long electionId = election.getId();
+		Voter voter = fixtures.voter("Dedup", "Post", "deduppost@example.com", "DP1");
+		Long chair = fixtures.candidate(election, voter, "Chair").getCandidateId();
+		votesService.castVote(new CastVoteCommand(voter.getId(), chair));
+
+		// The candidate moves to another post after the vote was cast
+		Candidates moved = candidatesRepository.findById(chair).orElseThrow();
+		moved.setPost("Treasurer");
+		candidatesRepository.save(moved);
+		voteDedupIndex.evict(electionId);
+
+		assertTrue(voteDedupIndex.hasVoted(electionId, voter.getId(), "Chair"));
+		assertFalse(voteDedupIndex.hasVoted(electionId, voter.getId(), "Treasurer"));
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WriteConcurrencyLimiterTests {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private WriteConcurrencyLimiter limiter(int initial, int queueCapacity, long maxWaitMs) {
+		WriteConcurrencyLimiter limiter = new WriteConcurrencyLimiter();
+		ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(limiter, "initialLimit", initial);
+		ReflectionTestUtils.setField(limiter, "minLimit", 2);
+		ReflectionTestUtils.setField(limiter, "maxLimit", 100);
+		ReflectionTestUtils.setField(limiter, "tolerance", 1.5);
+		ReflectionTestUtils.setField(limiter, "smoothing", 0.2);
+		ReflectionTestUtils.setField(limiter, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(limiter, "maxWaitMs", maxWaitMs);
+		limiter.start();
+		return limiter;
+	}
+
+	@Test
+	void shedsRequestsOverTheLimitAndLetsAQueuedOneInWhenASlotFrees() throws Exception {
+		WriteConcurrencyLimiter limiter = limiter(2, 1, 5_000);
+		List<WriteConcurrencyLimiter.Permit> permits = new ArrayList<>();
+		permits.add(limiter.acquire());
+		permits.add(limiter.acquire());
+
+		CompletableFuture<WriteConcurrencyLimiter.Permit> queued = CompletableFuture.supplyAsync(limiter::acquire);
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (limiter.getWaiting() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(1, limiter.getWaiting());
+		// Queue full: refused at once
+		assertThrows(ServiceOverloadedException.class, limiter::acquire);
+		assertEquals(1.0, meterRegistry.get("voting.writes.rejected").counter().count());
+
+		permits.get(0).release(false);
+		queued.get(5, TimeUnit.SECONDS).release(false);
+		permits.get(1).release(false);
+		assertEquals(0, limiter.getInFlight());
+		assertEquals(0.0, meterRegistry.get("voting.writes.queued").gauge().value());
+	}
+
+	@Test
+	void limitGrowsWhileLatencyHoldsAndComesDownWhenItRises() {
+		WriteConcurrencyLimiter limiter = limiter(20, 0, 0);
+		for (int i = 0; i < 50; i++) {
+			limiter.update(10 * MS, (int) limiter.getLimit(), false);
+		}
+		double grown = limiter.getLimit();
+		assertTrue(grown > 30, "limit " + grown);
+
+		// A mostly idle server learns nothing about its capacity
+		for (int i = 0; i < 50; i++) {
+			limiter.update(10 * MS, 1, false);
+		}
+		assertEquals(grown, limiter.getLimit(), 1e-9);
+
+		// The database slows to ten times its usual latency
+		for (int i = 0; i < 100; i++) {
+			limiter.update(100 * MS, (int) limiter.getLimit(), false);
+		}
+		double slowed = limiter.getLimit();
+		assertTrue(slowed < grown / 2, "limit " + slowed);
+
+		limiter.update(100 * MS, (int) slowed, true);
+		assertEquals(Math.max(2, slowed * 0.9), limiter.getLimit(), 1e-9);
+		assertEquals(limiter.getLimit(), meterRegistry.get("voting.writes.limit").gauge().value(), 1e-9);
+	}
+}
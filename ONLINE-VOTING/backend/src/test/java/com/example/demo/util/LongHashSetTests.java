@@ -0,0 +1,45 @@
+package com.example.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTests {
+
+	@Test
+	void addReportsDuplicates() {
+		LongHashSet set = new LongHashSet();
+		assertTrue(set.add(42));
+		assertFalse(set.add(42));
+		assertTrue(set.contains(42));
+		assertEquals(1, set.size());
+	}
+
+	@Test
+	void behavesLikeHashSetUnderRandomAddsAndRemoves() {
+		LongHashSet set = new LongHashSet(4);
+		Set<Long> expected = new HashSet<>();
+		Random random = new Random(7);
+
+		for (int i = 0; i < 200_000; i++) {
+			// A small key range forces long probe runs and lots of removals inside them
+			long value = random.nextInt(5_000);
+			if (random.nextBoolean()) {
+				assertEquals(expected.add(value), set.add(value));
+			} else {
+				assertEquals(expected.remove(value), set.remove(value));
+			}
+		}
+
+		assertEquals(expected.size(), set.size());
+		for (long value = 0; value < 5_000; value++) {
+			assertEquals(expected.contains(value), set.contains(value));
+		}
+	}
+}
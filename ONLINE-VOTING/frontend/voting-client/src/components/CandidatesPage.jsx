@@ -230,7 +230,8 @@ const CandidatesPage = () => {
                                     <div className="flex justify-center mt-6">
                                         {candidate.imageUrl ? (
                                             <img
-                                                src={`http://localhost:8080${candidate.imageUrl}`}
+                                                src={`http://localhost:8080${candidate.imageUrl}?width=96`}
+                                                srcSet={`http://localhost:8080${candidate.imageUrl}?width=96 1x, http://localhost:8080${candidate.imageUrl}?width=192 2x`}
                                                 alt={`${candidate.voter?.firstName} ${candidate.voter?.lastName}`}
                                                 className="w-24 h-24 object-cover rounded-full border-4 border-white shadow-md"
                                                 onError={(e) => {
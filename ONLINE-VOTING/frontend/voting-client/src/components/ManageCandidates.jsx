@@ -9,7 +9,7 @@ const ManageCandidates = () => {
     const [selectedElection, setSelectedElection] = useState('');
     const [elections, setElections] = useState([]);
     const [error, setError] = useState('');
-    const { getCandidatesByElection, getAllElections, updateCandidate, deleteCandidate } = useApi();
+    const { getCandidateDetailsByElection, getAllElections, updateCandidate, deleteCandidate } = useApi();
     const { userRole } = useAuth();
 
     // Refs to prevent race conditions
@@ -61,7 +61,7 @@ const ManageCandidates = () => {
             try {
                 setLoading(true);
                 setError('');
-                const data = await getCandidatesByElection(selectedElection);
+                const data = await getCandidateDetailsByElection(selectedElection);
                 if (!isMountedRef.current) return;
                 setCandidates(data);
             } catch (error) {
@@ -77,7 +77,7 @@ const ManageCandidates = () => {
         };
 
         loadCandidates();
-    }, [selectedElection, getCandidatesByElection, userRole]); // Only depend on selectedElection
+    }, [selectedElection, getCandidateDetailsByElection, userRole]); // Only depend on selectedElection
 
     const handleApprovalChange = async (candidateId, currentApproved) => {
         // Find the candidate in the local state to preserve all fields
@@ -265,7 +265,8 @@ const ManageCandidates = () => {
                                             <div className="flex justify-center">
                                                 {candidate.imageUrl ? (
                                                     <img
-                                                        src={`http://localhost:8080${candidate.imageUrl}`}
+                                                        src={`http://localhost:8080${candidate.imageUrl}?width=96`}
+                                                        srcSet={`http://localhost:8080${candidate.imageUrl}?width=96 1x, http://localhost:8080${candidate.imageUrl}?width=192 2x`}
                                                         alt={`${candidate.voter?.firstName} ${candidate.voter?.lastName}`}
                                                         className="w-20 h-20 object-cover rounded-full border-2 border-white shadow"
                                                         onError={(e) => {
@@ -3,11 +3,19 @@ import React, { useState, useEffect } from 'react';
 import { useApi } from '../hooks/useApi';
 import { useAuth } from '../context/AuthContext';
 
+// Voters fetched per request; the server caps this at voting.voters.max-page-size
+const VOTERS_PAGE_SIZE = 200;
+
 const ManageVoters = () => {
     const [voters, setVoters] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [totalCount, setTotalCount] = useState(null);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [searchTerm, setSearchTerm] = useState('');
     const [showAddForm, setShowAddForm] = useState(false);
+    const [importing, setImporting] = useState(false);
+    const [importReport, setImportReport] = useState(null);
 
     // State for Add Voter form
     const [newVoter, setNewVoter] = useState({
@@ -23,15 +31,17 @@ const ManageVoters = () => {
     const [editVoterData, setEditVoterData] = useState({});
 
     // Import all necessary API functions
-    const { getAllVoters, createVoter, updateVoter, deleteVoter } = useApi();
+    const { getVotersPage, createVoter, importVoters, updateVoter, deleteVoter } = useApi();
     const { userRole } = useAuth();
 
-    // --- Helper to Fetch Voters ---
+    // --- Helper to Fetch Voters (first page, with the total) ---
     const fetchVoters = async () => {
         setLoading(true);
         try {
-            const data = await getAllVoters();
-            setVoters(data);
+            const page = await getVotersPage(null, VOTERS_PAGE_SIZE, true);
+            setVoters(page.voters);
+            setNextCursor(page.nextCursor);
+            setTotalCount(page.totalCount);
         } catch (error) {
             console.error('Failed to load voters:', error);
         } finally {
@@ -39,12 +49,26 @@ const ManageVoters = () => {
         }
     };
 
+    // --- Append the next page ---
+    const loadMoreVoters = async () => {
+        setLoadingMore(true);
+        try {
+            const page = await getVotersPage(nextCursor, VOTERS_PAGE_SIZE);
+            setVoters(prev => [...prev, ...page.voters]);
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            console.error('Failed to load more voters:', error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     // --- Initial Fetch & Role Check ---
     useEffect(() => {
         if (userRole === 'admin') {
             fetchVoters();
         }
-    }, [getAllVoters, userRole]);
+    }, [getVotersPage, userRole]);
 
     // --- Filter Logic ---
     const filteredVoters = voters.filter(voter =>
@@ -77,6 +101,26 @@ const ManageVoters = () => {
         }
     };
 
+    // --- CSV Import Handler ---
+    const handleImportFile = async (e) => {
+        const file = e.target.files[0];
+        e.target.value = ''; // allow picking the same file again
+        if (!file) {
+            return;
+        }
+        setImporting(true);
+        setImportReport(null);
+        try {
+            setImportReport(await importVoters(file));
+            await fetchVoters(); // Refresh the voter list
+        } catch (error) {
+            console.error('Failed to import voters:', error);
+            alert('Failed to import voters: ' + (error.response?.data || error.message));
+        } finally {
+            setImporting(false);
+        }
+    };
+
     const handleNewVoterInputChange = (e) => {
         const { name, value } = e.target;
         setNewVoter(prev => ({
@@ -153,14 +197,43 @@ const ManageVoters = () => {
                     onChange={(e) => setSearchTerm(e.target.value)}
                     className="form-input max-w-md"
                 />
-                <button
-                    onClick={() => setShowAddForm(!showAddForm)}
-                    className={`${showAddForm ? 'btn-danger' : 'btn-primary'} flex items-center`}
-                >
-                    {showAddForm ? 'Cancel Add' : '➕ Add New Voter'}
-                </button>
+                <div className="flex items-center gap-2">
+                    <label className={`btn-secondary flex items-center ${importing ? 'opacity-50' : 'cursor-pointer'}`}
+                        title="CSV with columns firstName, lastName, email, universityId, password">
+                        {importing ? 'Importing...' : 'Import CSV'}
+                        <input type="file" accept=".csv,text/csv" onChange={handleImportFile}
+                            disabled={importing} className="hidden" />
+                    </label>
+                    <button
+                        onClick={() => setShowAddForm(!showAddForm)}
+                        className={`${showAddForm ? 'btn-danger' : 'btn-primary'} flex items-center`}
+                    >
+                        {showAddForm ? 'Cancel Add' : '➕ Add New Voter'}
+                    </button>
+                </div>
             </div>
 
+            {/* CSV Import Result */}
+            {importReport && (
+                <div className="mb-6 p-4 border border-teal-800 rounded bg-green-50">
+                    <p className="font-semibold">
+                        Imported {importReport.imported} of {importReport.rows} rows
+                        ({Math.round(importReport.rowsPerSecond)} rows/s)
+                        {importReport.failed > 0 && `, ${importReport.failed} failed`}
+                    </p>
+                    {importReport.errors.length > 0 && (
+                        <ul className="mt-2 text-sm text-red-700 list-disc list-inside">
+                            {importReport.errors.map(rowError => (
+                                <li key={rowError.line}>Line {rowError.line}: {rowError.message}</li>
+                            ))}
+                        </ul>
+                    )}
+                    {importReport.errorsTruncated && (
+                        <p className="mt-2 text-sm text-gray-600">Only the first {importReport.errors.length} errors are shown.</p>
+                    )}
+                </div>
+            )}
+
             {/* Add Voter Form */}
             {showAddForm && (
                 <form onSubmit={handleAddVoter} className="mb-6 p-4 border border-teal-800 rounded bg-green-50">
@@ -306,6 +379,17 @@ const ManageVoters = () => {
                     </tbody>
                 </table>
             </div>
+
+            <div className="mt-4 flex justify-between items-center">
+                <span className="text-gray-600">
+                    Showing {voters.length}{totalCount != null ? ` of ${totalCount}` : ''} voters
+                </span>
+                {nextCursor != null && (
+                    <button onClick={loadMoreVoters} disabled={loadingMore} className="btn-secondary">
+                        {loadingMore ? 'Loading...' : 'Load more'}
+                    </button>
+                )}
+            </div>
         </div>
     );
 };
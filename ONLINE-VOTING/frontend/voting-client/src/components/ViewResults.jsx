@@ -8,7 +8,8 @@ const ViewResults = () => {
     const [loading, setLoading] = useState(true);
     const [selectedElection, setSelectedElection] = useState('');
     const [elections, setElections] = useState([]);
-    const { getVoteCountsByElection, getAllElections } = useApi();
+    const [finalResults, setFinalResults] = useState(null);
+    const { getVoteCountsByElection, getFinalResults, subscribeToVoteCounts, getAllElections } = useApi();
     const { userRole } = useAuth();
 
     useEffect(() => {
@@ -34,6 +35,15 @@ const ViewResults = () => {
         const fetchResults = async () => {
             if (selectedElection) {
                 try {
+                    // A completed election has final results that never change
+                    const final = await getFinalResults(selectedElection);
+                    setFinalResults(final);
+                    if (final) {
+                        setResults(final.posts.flatMap(post =>
+                            post.candidates.filter(candidate => candidate.votes > 0)
+                                .map(candidate => [candidate, candidate.votes])));
+                        return;
+                    }
                     const data = await getVoteCountsByElection(selectedElection);
                     setResults(data);
                 } catch (error) {
@@ -47,7 +57,17 @@ const ViewResults = () => {
         if (userRole === 'admin') {
             fetchResults();
         }
-    }, [selectedElection, getVoteCountsByElection, userRole]);
+    }, [selectedElection, getVoteCountsByElection, getFinalResults, userRole]);
+
+    const isFinal = finalResults != null && finalResults.electionId == selectedElection;
+
+    // Keep the table live while the page is open, until the results are final
+    useEffect(() => {
+        if (userRole !== 'admin' || !selectedElection || isFinal) {
+            return undefined;
+        }
+        return subscribeToVoteCounts(selectedElection, setResults);
+    }, [selectedElection, subscribeToVoteCounts, userRole, isFinal]);
 
     // Calculate total votes for percentage calculation
     const totalVotes = results.reduce((sum, [_, count]) => sum + count, 0);
@@ -123,6 +143,18 @@ const ViewResults = () => {
                     <div className="px-6 py-4 border-b border-gray-200">
                         <h2 className="text-xl font-bold text-gray-900">Voting Results</h2>
                         <p className="text-sm text-gray-500 mt-1">Total votes cast: {totalVotes}</p>
+                        {isFinal && (
+                            <p className="text-sm text-gray-500 mt-1">
+                                Final results: {finalResults.ballotsCast} of {finalResults.registeredVoters} voters
+                                voted ({(finalResults.turnout * 100).toFixed(1)}% turnout).{' '}
+                                <a
+                                    href={`http://localhost:8080/api/v1/elections/${selectedElection}/results?format=csv`}
+                                    className="text-teal-600 hover:text-teal-800 font-medium"
+                                >
+                                    Download CSV
+                                </a>
+                            </p>
+                        )}
                     </div>
 
                     <div className="overflow-x-auto">
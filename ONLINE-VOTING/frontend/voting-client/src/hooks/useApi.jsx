@@ -63,9 +63,15 @@ export const useApi = () => {
         }
     }, []);
 
-    const getAllVoters = useCallback(async () => {
+    // One page of voters: { voters, nextCursor, totalCount }. Pass nextCursor as 'after'
+    // to get the next page; it is null on the last one.
+    const getVotersPage = useCallback(async (after = null, size = 100, includeTotal = false) => {
         try {
-            const response = await apiClient.get('/api/v1/voters');
+            const params = { size, includeTotal };
+            if (after != null) {
+                params.after = after;
+            }
+            const response = await apiClient.get('/api/v1/voters', { params });
             return response.data;
         }
         catch (error) {
@@ -150,6 +156,17 @@ export const useApi = () => {
         }
     }, []);
 
+    // Full candidate records for admin pages (the ballot endpoint only carries what voters see)
+    const getCandidateDetailsByElection = useCallback(async (electionId) => {
+        try {
+            const response = await apiClient.get(`/api/v1/candidates/election/${electionId}/details`);
+            return response.data;
+        } catch (error) {
+            console.error('Error fetching candidate details:', error);
+            throw error;
+        }
+    }, []);
+
     // Get vote counts by election
     const getVoteCountsByElection = useCallback(async (electionId) => {
         try {
@@ -161,14 +178,53 @@ export const useApi = () => {
         }
     }, []);
 
+    // Final results of a completed election, or null while it has none
+    const getFinalResults = useCallback(async (electionId) => {
+        try {
+            const response = await apiClient.get(`/api/v1/elections/${electionId}/results`);
+            return response.data;
+        } catch (error) {
+            if (error.response?.status === 404) {
+                return null;
+            }
+            console.error('Error fetching final results:', error);
+            throw error;
+        }
+    }, []);
+
+    // Live vote counts over server-sent events. Calls onRows with [candidate, count]
+    // rows (same shape as getVoteCountsByElection) and returns a function to stop.
+    const subscribeToVoteCounts = useCallback((electionId, onRows) => {
+        const source = new EventSource(`${apiClient.defaults.baseURL}/api/v1/votes/election/${electionId}/stream`);
+        let rows = new Map();
+        const emit = () => onRows(Array.from(rows.values()).filter(([, count]) => count > 0));
+
+        source.addEventListener('snapshot', (event) => {
+            const snapshot = JSON.parse(event.data);
+            rows = new Map();
+            snapshot.posts.forEach(post =>
+                post.candidates.forEach(candidate => rows.set(candidate.candidateId, [candidate, candidate.votes])));
+            emit();
+        });
+        source.addEventListener('delta', (event) => {
+            const delta = JSON.parse(event.data);
+            delta.changed.forEach(candidate => rows.set(candidate.candidateId, [candidate, candidate.votes]));
+            delta.removed.forEach(candidateId => rows.delete(candidateId));
+            emit();
+        });
+        // EventSource reconnects on its own and receives a fresh snapshot
+        source.onerror = () => console.error('Live results stream interrupted, reconnecting...');
+
+        return () => source.close();
+    }, []);
+
     // Submit a vote
     const submitVote = useCallback(async (voteData) => {
         try {
+            // The server works out the election and post from the candidate
             const response = await apiClient.post('/api/v1/votes', {
-                voter: { id: voteData.voterId },
-                candidate: { candidateId: voteData.candidateId },
-                election: { id: voteData.electionId },
-                timestamp: new Date().toISOString()
+                voterId: voteData.voterId,
+                candidateId: voteData.candidateId
             });
             return response.data;
         } catch (error) {
@@ -188,6 +244,23 @@ export const useApi = () => {
         }
     }, []);
 
+    // Import voters from a CSV file (admin only); resolves to the import report
+    const importVoters = useCallback(async (csvFile) => {
+        try {
+            const formData = new FormData();
+            formData.append('file', csvFile);
+            const response = await apiClient.post('/api/v1/voters/import', formData, {
+                headers: {
+                    'Content-Type': 'multipart/form-data'
+                }
+            });
+            return response.data;
+        } catch (error) {
+            console.error('Error importing voters:', error);
+            throw error;
+        }
+    }, []);
+
     // Create new election (admin only)
     const createElection = useCallback(async (electionData) => {
         try {
@@ -275,17 +348,21 @@ export const useApi = () => {
     // Return all functions
     // ----------------------------------------------------------------------
     return {
-        getAllVoters,
+        getVotersPage,
         approveVoter,
         loginVoter,
         registerVoter,
 
         getAllElections,
         getCandidatesByElection,
+        getCandidateDetailsByElection,
         getVoteCountsByElection,
+        getFinalResults,
+        subscribeToVoteCounts,
         submitVote,
         updateElectionStatus,
         createVoter,
+        importVoters,
         loginAdmin,
         createElection,
         createCandidate,